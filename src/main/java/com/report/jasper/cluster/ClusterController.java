@@ -0,0 +1,75 @@
+package com.report.jasper.cluster;
+
+import com.report.jasper.model.ReportSpec;
+import com.report.jasper.service.JasperReportService;
+import com.report.jasper.service.ReportStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/cluster")
+public class ClusterController {
+
+    private static final Set<String> FORMATS = Set.of("pdf", "xlsx", "html");
+
+    @Autowired
+    private ReportRouter reportRouter;
+
+    @Autowired
+    private ReportStore reportStore;
+
+    @Autowired
+    private ClusterMembership clusterMembership;
+
+    @Autowired
+    private JasperReportService jasperReportService;
+
+    @PostMapping("/render")
+    public ResponseEntity<Map<String, Object>> render(@RequestBody ReportSpec spec) {
+        // Only peers of a cluster may ask this node to render
+        if (!clusterMembership.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        try {
+            if (spec.getReportName() == null || !jasperReportService.getTemplateNames().contains(spec.getReportName())) {
+                result.put("error", "Unknown report: " + spec.getReportName());
+                return ResponseEntity.badRequest().body(result);
+            }
+            if (spec.getFormat() == null || !FORMATS.contains(spec.getFormat().toLowerCase())) {
+                result.put("error", "Unsupported format: " + spec.getFormat());
+                return ResponseEntity.badRequest().body(result);
+            }
+            if (spec.getEmployees() == null || spec.getEmployees().isEmpty()) {
+                result.put("error", "Employee list cannot be empty");
+                return ResponseEntity.badRequest().body(result);
+            }
+
+            // Always render here; forwarding again could loop while membership views differ
+            ReportStore.StoredReport report = reportRouter.renderLocally(reportStore.fingerprint(spec), spec);
+            result.put("reportId", report.id());
+            result.put("size", report.size());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            e.printStackTrace();
+            result.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(result);
+        }
+    }
+
+    @GetMapping("/members")
+    public ResponseEntity<Map<String, Object>> members() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", clusterMembership.isEnabled());
+        result.put("self", clusterMembership.getSelfUrl());
+        result.put("members", clusterMembership.getMembers());
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,188 @@
+package com.report.jasper.cluster;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Tracks the nodes of the report farm. Members come from a static peer list,
+ * from heartbeat files in a shared directory, or both. Each node writes its own
+ * heartbeat and drops peers whose heartbeat is older than the TTL.
+ */
+@Component
+public class ClusterMembership {
+
+    @Value("${report.cluster.enabled:false}")
+    private boolean enabled;
+
+    // Required with static peers; heartbeat-only clusters on one host may rely on the default
+    @Value("${report.cluster.self-url:}")
+    private String selfUrl;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${report.cluster.peers:}")
+    private List<String> peers;
+
+    @Value("${report.cluster.directory:}")
+    private String directory;
+
+    @Value("${report.cluster.heartbeat-ttl-ms:15000}")
+    private long heartbeatTtlMillis;
+
+    @Value("${report.cluster.virtual-nodes:128}")
+    private int virtualNodes;
+
+    private volatile ConsistentHashRing ring;
+
+    @PostConstruct
+    public void init() throws IOException {
+        validatePeers();
+        selfUrl = selfUrl.isBlank() ? "http://localhost:" + serverPort : normalize(selfUrl);
+        if (enabled && !directory.isBlank()) {
+            Files.createDirectories(Paths.get(directory));
+        }
+        heartbeat();
+    }
+
+    @Scheduled(fixedDelayString = "${report.cluster.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+
+        Set<String> members = new LinkedHashSet<>();
+        members.add(selfUrl);
+        for (String peer : peers) {
+            if (!peer.isBlank()) {
+                members.add(normalize(peer));
+            }
+        }
+
+        if (!directory.isBlank()) {
+            try {
+                writeHeartbeat();
+                members.addAll(readHeartbeats());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        ConsistentHashRing current = ring;
+        if (current == null || !current.getMembers().equals(members.stream().sorted().toList())) {
+            ring = new ConsistentHashRing(members, virtualNodes);
+        }
+    }
+
+    @PreDestroy
+    public void leave() throws IOException {
+        if (enabled && !directory.isBlank()) {
+            Files.deleteIfExists(heartbeatFile());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getSelfUrl() {
+        return selfUrl;
+    }
+
+    public boolean isSelf(String member) {
+        return selfUrl.equals(member);
+    }
+
+    /**
+     * Returns the node that owns the given key, or {@code null} when cluster
+     * mode is disabled.
+     */
+    public String ownerOf(String key) {
+        ConsistentHashRing current = ring;
+        return enabled && current != null ? current.ownerOf(key) : null;
+    }
+
+    public List<String> getMembers() {
+        ConsistentHashRing current = ring;
+        return current != null ? current.getMembers() : List.of(selfUrl);
+    }
+
+    private void validatePeers() {
+        List<String> staticPeers = peers.stream().filter(peer -> !peer.isBlank()).map(ClusterMembership::normalize)
+                .toList();
+        if (!enabled || staticPeers.isEmpty()) {
+            return;
+        }
+
+        // Every node must place itself on the ring under the same URL its peers use
+        if (selfUrl.isBlank()) {
+            throw new IllegalStateException("report.cluster.self-url is required when report.cluster.peers is set");
+        }
+        if (!staticPeers.contains(normalize(selfUrl))) {
+            throw new IllegalStateException("report.cluster.self-url " + selfUrl
+                    + " is not listed in report.cluster.peers " + staticPeers);
+        }
+    }
+
+    private void writeHeartbeat() throws IOException {
+        Path heartbeatFile = heartbeatFile();
+        if (Files.exists(heartbeatFile)) {
+            // Only the mtime changes, so peers never read a truncated file
+            Files.setLastModifiedTime(heartbeatFile, FileTime.fromMillis(System.currentTimeMillis()));
+            return;
+        }
+
+        Path temp = Files.createTempFile(Paths.get(directory), "heartbeat", ".tmp");
+        try {
+            Files.writeString(temp, selfUrl);
+            Files.move(temp, heartbeatFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Set<String> readHeartbeats() throws IOException {
+        Set<String> members = new LinkedHashSet<>();
+        long cutoff = System.currentTimeMillis() - heartbeatTtlMillis;
+        try (Stream<Path> files = Files.list(Paths.get(directory))) {
+            for (Path file : files.filter(path -> path.toString().endsWith(".node")).toList()) {
+                try {
+                    if (Files.getLastModifiedTime(file).toMillis() >= cutoff) {
+                        String member = Files.readString(file).trim();
+                        if (!member.isEmpty()) {
+                            members.add(normalize(member));
+                        }
+                    }
+                } catch (IOException e) {
+                    // Heartbeat removed while listing
+                }
+            }
+        }
+        return members;
+    }
+
+    private Path heartbeatFile() {
+        return Paths.get(directory, URLEncoder.encode(selfUrl, StandardCharsets.UTF_8) + ".node");
+    }
+
+    private static String normalize(String url) {
+        String trimmed = url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
@@ -0,0 +1,94 @@
+package com.report.jasper.cluster;
+
+import com.report.jasper.diagnostics.ReportTrace;
+import com.report.jasper.model.ReportSpec;
+import com.report.jasper.service.JasperReportService;
+import com.report.jasper.service.ReportStore;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Resolves a report spec to a stored report. In cluster mode the spec is
+ * rendered once by the node owning its fingerprint and read back from the
+ * shared report store; otherwise, or when the owner cannot be reached, it is
+ * rendered locally.
+ */
+@Service
+public class ReportRouter {
+
+    @Autowired
+    private ReportStore reportStore;
+
+    @Autowired
+    private JasperReportService jasperReportService;
+
+    @Autowired
+    private ClusterMembership clusterMembership;
+
+    @Value("${report.cluster.connect-timeout-ms:2000}")
+    private int connectTimeoutMillis;
+
+    @Value("${report.cluster.render-timeout-ms:120000}")
+    private int renderTimeoutMillis;
+
+    private RestClient restClient;
+
+    @PostConstruct
+    public void init() {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMillis);
+        requestFactory.setReadTimeout(renderTimeoutMillis);
+        restClient = RestClient.builder().requestFactory(requestFactory).build();
+    }
+
+    public ReportStore.StoredReport getOrRender(ReportSpec spec) throws Exception {
+        String reportId = reportStore.fingerprint(spec);
+        String owner = clusterMembership.ownerOf(reportId);
+
+        if (owner != null && !clusterMembership.isSelf(owner)) {
+            ReportStore.StoredReport existing = reportStore.find(reportId);
+            if (existing != null) {
+                ReportTrace.recordPhase("store", null, 0, "hit, bytes=" + existing.size());
+                return existing;
+            }
+
+            long start = System.nanoTime();
+            boolean forwarded = false;
+            try {
+                restClient.post()
+                        .uri(owner + "/api/cluster/render")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(spec)
+                        .retrieve()
+                        .toBodilessEntity();
+                forwarded = true;
+            } catch (Exception e) {
+                // Owner down or unreachable; fall through to a local render
+                e.printStackTrace();
+            } finally {
+                // Fill and export ran on the owner, this is their share of the request
+                ReportTrace.recordPhase("forward", spec.getReportName(), System.nanoTime() - start,
+                        (forwarded ? "" : "failed, ") + "owner=" + owner);
+            }
+
+            if (forwarded) {
+                ReportStore.StoredReport rendered = reportStore.find(reportId);
+                if (rendered != null) {
+                    return rendered;
+                }
+            }
+        }
+
+        return renderLocally(reportId, spec);
+    }
+
+    public ReportStore.StoredReport renderLocally(String reportId, ReportSpec spec) throws Exception {
+        return reportStore.getOrRender(reportId, spec.getFormat(),
+                outputStream -> jasperReportService.generateReport(spec, outputStream));
+    }
+}
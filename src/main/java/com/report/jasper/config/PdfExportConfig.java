@@ -0,0 +1,20 @@
+package com.report.jasper.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+@Configuration
+public class PdfExportConfig {
+
+    @Bean
+    public PdfExportProfile pdfExportProfile(
+            @Value("${report.pdf.compressed:true}") boolean compressed,
+            @Value("${report.pdf.conformance:none}") String conformance,
+            @Value("${report.pdf.version:}") String version,
+            @Value("${report.pdf.tagged:false}") boolean tagged) throws IOException {
+        return new PdfExportProfile(compressed, conformance, version, tagged);
+    }
+}
@@ -0,0 +1,94 @@
+package com.report.jasper.config;
+
+import net.sf.jasperreports.export.SimplePdfExporterConfiguration;
+import net.sf.jasperreports.export.type.PdfVersionEnum;
+import net.sf.jasperreports.export.type.PdfaConformanceEnum;
+
+import java.awt.color.ColorSpace;
+import java.awt.color.ICC_Profile;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * PDF export settings shared by every PDF export. The exporter configuration is
+ * built once and only read by exporters, so it is safe to reuse concurrently.
+ */
+public class PdfExportProfile {
+
+    private final boolean compressed;
+    private final String conformance;
+    private final String version;
+    private final boolean tagged;
+    private final SimplePdfExporterConfiguration configuration;
+
+    /**
+     * @param compressed  compress page content streams
+     * @param conformance {@code none}, {@code pdfa-1a} or {@code pdfa-1b}
+     * @param version     PDF version such as {@code 1.7}, or blank for the exporter default
+     * @param tagged      produce a tagged (accessible) PDF; always on for PDF/A-1a
+     */
+    public PdfExportProfile(boolean compressed, String conformance, String version, boolean tagged)
+            throws IOException {
+        this.compressed = compressed;
+        this.conformance = conformance.trim().toLowerCase();
+        this.version = version == null ? "" : version.trim();
+
+        PdfaConformanceEnum pdfaConformance = switch (this.conformance) {
+            case "none" -> PdfaConformanceEnum.NONE;
+            case "pdfa-1a" -> PdfaConformanceEnum.PDFA_1A;
+            case "pdfa-1b" -> PdfaConformanceEnum.PDFA_1B;
+            default -> throw new IllegalArgumentException("Unsupported PDF conformance: " + conformance);
+        };
+        this.tagged = tagged || pdfaConformance == PdfaConformanceEnum.PDFA_1A;
+
+        configuration = new SimplePdfExporterConfiguration();
+        configuration.setCompressed(compressed);
+        configuration.setTagged(this.tagged);
+        configuration.setPdfaConformance(pdfaConformance);
+        if (pdfaConformance != PdfaConformanceEnum.NONE) {
+            // PDF/A requires an output intent; the JDK ships an sRGB profile
+            configuration.setIccProfilePath(writeSrgbProfile().toAbsolutePath().toString());
+        }
+        if (!this.version.isEmpty()) {
+            try {
+                configuration.setPdfVersion(PdfVersionEnum.valueOf("VERSION_" + this.version.replace('.', '_')));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported PDF version: " + version);
+            }
+        }
+    }
+
+    /**
+     * PDF/A forbids non-embedded fonts, so templates must be filled with an
+     * embeddable font family for this profile.
+     */
+    public boolean requiresEmbeddedFonts() {
+        return !conformance.equals("none");
+    }
+
+    public SimplePdfExporterConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Stable description of the settings that change the PDF bytes, used to key
+     * stored reports.
+     */
+    public String describe() {
+        return "compressed=" + compressed + ",conformance=" + conformance + ",version=" + version + ",tagged="
+                + tagged;
+    }
+
+    @Override
+    public String toString() {
+        return describe();
+    }
+
+    private static Path writeSrgbProfile() throws IOException {
+        Path path = Files.createTempFile("jasper-srgb", ".icc");
+        Files.write(path, ICC_Profile.getInstance(ColorSpace.CS_sRGB).getData());
+        path.toFile().deleteOnExit();
+        return path;
+    }
+}
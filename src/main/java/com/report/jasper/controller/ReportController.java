@@ -1,10 +1,17 @@
 package com.report.jasper.controller;
 
+import com.report.jasper.cluster.ReportRouter;
+import com.report.jasper.diagnostics.ReportTrace;
 import com.report.jasper.model.Employee;
 import com.report.jasper.model.ReportRequest;
+import com.report.jasper.model.ReportSpec;
 import com.report.jasper.service.EmployeeDataService;
 import com.report.jasper.service.JasperReportService;
+import com.report.jasper.service.ReportStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -28,38 +35,35 @@ public class ReportController {
     @Autowired
     private EmployeeDataService employeeDataService;
 
+    @Autowired
+    private ReportStore reportStore;
+
+    @Autowired
+    private ReportRouter reportRouter;
+
     @GetMapping("/employee")
-    public ResponseEntity<byte[]> generateEmployeeReport(
+    public ResponseEntity<Resource> generateEmployeeReport(
             @RequestParam(defaultValue = "pdf") String format) {
         try {
             List<Employee> employees = employeeDataService.getMockEmployeeData();
 
-            byte[] reportBytes = switch (format.toLowerCase()) {
-                case "pdf" -> jasperReportService.generatePdfReport(employees, "employee_report");
-                case "xlsx" -> jasperReportService.generateExcelReport(employees, "employee_report");
-                case "html" -> jasperReportService.generateHtmlReport(employees, "employee_report");
-                default -> throw new IllegalArgumentException("Unsupported format: " + format);
-            };
+            ReportStore.StoredReport report = reportRouter.getOrRender(
+                    new ReportSpec("employee_report", format, employees, null));
 
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
             String filename = "employee_report_" + timestamp + jasperReportService.getFileExtension(format);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType(jasperReportService.getContentType(format)));
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(reportBytes.length);
-
-            return new ResponseEntity<>(reportBytes, headers, HttpStatus.OK);
+            return serveReport(report, filename);
 
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(("Error generating report: " + e.getMessage()).getBytes());
+                    .body(new ByteArrayResource(("Error generating report: " + e.getMessage()).getBytes()));
         }
     }
 
     @GetMapping("/employee/department/{department}")
-    public ResponseEntity<byte[]> generateEmployeeReportByDepartment(
+    public ResponseEntity<Resource> generateEmployeeReportByDepartment(
             @PathVariable String department,
             @RequestParam(defaultValue = "pdf") String format) {
         try {
@@ -67,36 +71,27 @@ public class ReportController {
 
             if (employees.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(("No employees found in department: " + department).getBytes());
+                        .body(new ByteArrayResource(("No employees found in department: " + department).getBytes()));
             }
 
-            byte[] reportBytes = switch (format.toLowerCase()) {
-                case "pdf" -> jasperReportService.generatePdfReport(employees, "employee_report");
-                case "xlsx" -> jasperReportService.generateExcelReport(employees, "employee_report");
-                case "html" -> jasperReportService.generateHtmlReport(employees, "employee_report");
-                default -> throw new IllegalArgumentException("Unsupported format: " + format);
-            };
+            ReportStore.StoredReport report = reportRouter.getOrRender(
+                    new ReportSpec("employee_report", format, employees, null));
 
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
             String filename = "employee_report_" + department.toLowerCase() + "_" + timestamp +
                     jasperReportService.getFileExtension(format);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType(jasperReportService.getContentType(format)));
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(reportBytes.length);
-
-            return new ResponseEntity<>(reportBytes, headers, HttpStatus.OK);
+            return serveReport(report, filename);
 
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(("Error generating report: " + e.getMessage()).getBytes());
+                    .body(new ByteArrayResource(("Error generating report: " + e.getMessage()).getBytes()));
         }
     }
 
     @GetMapping("/employee/salary")
-    public ResponseEntity<byte[]> generateEmployeeReportBySalaryRange(
+    public ResponseEntity<Resource> generateEmployeeReportBySalaryRange(
             @RequestParam(defaultValue = "0") Double minSalary,
             @RequestParam(defaultValue = "999999") Double maxSalary,
             @RequestParam(defaultValue = "pdf") String format) {
@@ -105,30 +100,23 @@ public class ReportController {
 
             if (employees.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(("No employees found with salary between " + minSalary + " and " + maxSalary).getBytes());
+                        .body(new ByteArrayResource(
+                                ("No employees found with salary between " + minSalary + " and " + maxSalary)
+                                        .getBytes()));
             }
 
-            byte[] reportBytes = switch (format.toLowerCase()) {
-                case "pdf" -> jasperReportService.generatePdfReport(employees, "employee_report");
-                case "xlsx" -> jasperReportService.generateExcelReport(employees, "employee_report");
-                case "html" -> jasperReportService.generateHtmlReport(employees, "employee_report");
-                default -> throw new IllegalArgumentException("Unsupported format: " + format);
-            };
+            ReportStore.StoredReport report = reportRouter.getOrRender(
+                    new ReportSpec("employee_report", format, employees, null));
 
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
             String filename = "employee_salary_report_" + timestamp + jasperReportService.getFileExtension(format);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType(jasperReportService.getContentType(format)));
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(reportBytes.length);
-
-            return new ResponseEntity<>(reportBytes, headers, HttpStatus.OK);
+            return serveReport(report, filename);
 
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(("Error generating report: " + e.getMessage()).getBytes());
+                    .body(new ByteArrayResource(("Error generating report: " + e.getMessage()).getBytes()));
         }
     }
 
@@ -147,6 +135,17 @@ public class ReportController {
         return ResponseEntity.ok(new String[] { "pdf", "xlsx", "html" });
     }
 
+    @GetMapping("/files/{reportId}")
+    public ResponseEntity<Resource> downloadStoredReport(@PathVariable String reportId) {
+        ReportStore.StoredReport report = reportStore.find(reportId);
+        if (report == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ByteArrayResource(("Report not found: " + reportId).getBytes()));
+        }
+
+        return serveReport(report, report.path().getFileName().toString());
+    }
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> healthCheck() {
         Map<String, Object> health = new HashMap<>();
@@ -163,45 +162,37 @@ public class ReportController {
     }
 
     @PostMapping("/employee/custom")
-    public ResponseEntity<byte[]> generateCustomEmployeeReport(
+    public ResponseEntity<Resource> generateCustomEmployeeReport(
             @RequestBody List<Employee> employees,
             @RequestParam(defaultValue = "pdf") String format) {
         try {
             if (employees == null || employees.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body("Employee list cannot be empty".getBytes());
+                        .body(new ByteArrayResource("Employee list cannot be empty".getBytes()));
             }
 
             Map<String, Object> parameters = new HashMap<>();
             parameters.put("creator", "Created by: Some User");
 
-            byte[] reportBytes = switch (format.toLowerCase()) {
-                case "pdf" ->
-                    jasperReportService.generateReportWithParametersPdf(employees, parameters, "users", "pdf");
-                case "xlsx" -> jasperReportService.generateExcelReport(employees, "users");
-                case "html" -> jasperReportService.generateHtmlReport(employees, "users");
-                default -> throw new IllegalArgumentException("Unsupported format: " + format);
-            };
+            // Custom parameters only apply to the PDF export
+            ReportSpec spec = new ReportSpec("users", format, employees,
+                    "pdf".equalsIgnoreCase(format) ? parameters : null);
+            ReportStore.StoredReport report = reportRouter.getOrRender(spec);
 
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
             String filename = "custom_user_report_" + timestamp + jasperReportService.getFileExtension(format);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType(jasperReportService.getContentType(format)));
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(reportBytes.length);
-
-            return new ResponseEntity<>(reportBytes, headers, HttpStatus.OK);
+            return serveReport(report, filename);
 
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(("Error generating custom report: " + e.getMessage()).getBytes());
+                    .body(new ByteArrayResource(("Error generating custom report: " + e.getMessage()).getBytes()));
         }
     }
 
     @PostMapping("/employee/generate")
-    public ResponseEntity<byte[]> generateReportFromRequest(@RequestBody ReportRequest request) {
+    public ResponseEntity<Resource> generateReportFromRequest(@RequestBody ReportRequest request) {
         try {
             List<Employee> employees;
 
@@ -240,33 +231,41 @@ public class ReportController {
 
             if (employees.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body("No employees found matching the criteria".getBytes());
+                        .body(new ByteArrayResource("No employees found matching the criteria".getBytes()));
             }
 
             String format = request.getFormat() != null ? request.getFormat() : "pdf";
             String reportTemplate = request.getReportName() != null ? request.getReportName() : "employee_report";
 
-            byte[] reportBytes = switch (format.toLowerCase()) {
-                case "pdf" -> jasperReportService.generatePdfReport(employees, reportTemplate);
-                case "xlsx" -> jasperReportService.generateExcelReport(employees, reportTemplate);
-                case "html" -> jasperReportService.generateHtmlReport(employees, reportTemplate);
-                default -> throw new IllegalArgumentException("Unsupported format: " + format);
-            };
+            ReportStore.StoredReport report = reportRouter.getOrRender(
+                    new ReportSpec(reportTemplate, format, employees, null));
 
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
             String filename = "generated_report_" + timestamp + jasperReportService.getFileExtension(format);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType(jasperReportService.getContentType(format)));
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(reportBytes.length);
-
-            return new ResponseEntity<>(reportBytes, headers, HttpStatus.OK);
+            return serveReport(report, filename);
 
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(("Error generating report: " + e.getMessage()).getBytes());
+                    .body(new ByteArrayResource(("Error generating report: " + e.getMessage()).getBytes()));
         }
     }
+
+    private ResponseEntity<Resource> serveReport(ReportStore.StoredReport report, String filename) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(jasperReportService.getContentType(report.format())));
+        headers.setContentDispositionFormData("attachment", filename);
+        // A re-render after the TTL keeps the id but changes the bytes, so the tag covers the file too
+        headers.setETag("\"" + report.id() + "-" + Long.toHexString(report.lastModified()) + "-"
+                + Long.toHexString(report.size()) + "\"");
+        headers.setLastModified(report.lastModified());
+        headers.set("X-Report-Id", report.id());
+
+        ReportTrace.markHandled();
+
+        // Content-Length, Range/206 and If-None-Match/If-Modified-Since are handled by
+        // Spring MVC for Resource bodies, streaming straight from the stored file
+        return new ResponseEntity<>(new FileSystemResource(report.path()), headers, HttpStatus.OK);
+    }
 }
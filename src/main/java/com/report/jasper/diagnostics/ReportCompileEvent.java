@@ -0,0 +1,19 @@
+package com.report.jasper.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.report.jasper.ReportCompile")
+@Label("Report Template Compile")
+@Category({ "Jasper Reports" })
+@Description("Loading and compiling a JRXML template")
+public class ReportCompileEvent extends jdk.jfr.Event {
+
+    @Label("Report Name")
+    public String reportName;
+
+    @Label("Failed")
+    public boolean failed;
+}
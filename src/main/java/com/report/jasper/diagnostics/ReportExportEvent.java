@@ -0,0 +1,27 @@
+package com.report.jasper.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.report.jasper.ReportExport")
+@Label("Report Export")
+@Category({ "Jasper Reports" })
+@Description("Exporting a filled report to an output format")
+public class ReportExportEvent extends jdk.jfr.Event {
+
+    @Label("Report Name")
+    public String reportName;
+
+    @Label("Format")
+    public String format;
+
+    @Label("Output Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Failed")
+    public boolean failed;
+}
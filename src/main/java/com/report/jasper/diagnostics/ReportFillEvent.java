@@ -0,0 +1,25 @@
+package com.report.jasper.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.report.jasper.ReportFill")
+@Label("Report Fill")
+@Category({ "Jasper Reports" })
+@Description("Filling a compiled template with data")
+public class ReportFillEvent extends jdk.jfr.Event {
+
+    @Label("Report Name")
+    public String reportName;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Pages")
+    public int pages;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,89 @@
+package com.report.jasper.diagnostics;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-request breakdown of the report pipeline. The trace is bound to the
+ * request thread by {@link ReportTraceFilter}; phases recorded outside of a
+ * request (e.g. warm-up) are dropped.
+ */
+public class ReportTrace {
+
+    private static final ThreadLocal<ReportTrace> CURRENT = new ThreadLocal<>();
+
+    private final String method;
+    private final String uri;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final List<Phase> phases = new ArrayList<>();
+
+    private long handledNanos;
+    private long totalMillis;
+    private int status;
+
+    public record Phase(String name, String reportName, double millis, String detail) {
+    }
+
+    private ReportTrace(String method, String uri) {
+        this.method = method;
+        this.uri = uri;
+    }
+
+    public static ReportTrace begin(String method, String uri) {
+        ReportTrace trace = new ReportTrace(method, uri);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    public static void recordPhase(String name, String reportName, long nanos, String detail) {
+        ReportTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.phases.add(new Phase(name, reportName, nanos / 1_000_000.0, detail));
+        }
+    }
+
+    /**
+     * Marks the point where the report is ready to be written. Time spent
+     * streaming the body to the client is not part of the trace.
+     */
+    public static void markHandled() {
+        ReportTrace trace = CURRENT.get();
+        if (trace != null && trace.handledNanos == 0) {
+            trace.handledNanos = System.nanoTime();
+        }
+    }
+
+    public void end(int status) {
+        long endNanos = handledNanos != 0 ? handledNanos : System.nanoTime();
+        this.totalMillis = (endNanos - startNanos) / 1_000_000;
+        this.status = status;
+        CURRENT.remove();
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public List<Phase> getPhases() {
+        return Collections.unmodifiableList(phases);
+    }
+}
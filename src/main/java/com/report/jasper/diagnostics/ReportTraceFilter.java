@@ -0,0 +1,41 @@
+package com.report.jasper.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Component
+public class ReportTraceFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private SlowReportRecorder slowReportRecorder;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (uri.equals("/api/cluster/render")) {
+            // Renders forwarded by peers show up on the owner too
+            return false;
+        }
+        // Stored report downloads only stream bytes; their time depends on the client
+        return !uri.startsWith("/api/reports/") || uri.startsWith("/api/reports/files/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ReportTrace trace = ReportTrace.begin(request.getMethod(), request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            trace.end(response.getStatus());
+            slowReportRecorder.record(trace);
+        }
+    }
+}
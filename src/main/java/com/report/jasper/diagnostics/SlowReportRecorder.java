@@ -0,0 +1,67 @@
+package com.report.jasper.diagnostics;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Always-on ring buffer keeping the breakdown of the most recent report
+ * requests that exceeded the latency threshold.
+ */
+@Component
+public class SlowReportRecorder {
+
+    @Value("${report.diagnostics.slow-threshold-ms:2000}")
+    private long thresholdMillis;
+
+    @Value("${report.diagnostics.capacity:100}")
+    private int capacity;
+
+    private final Deque<ReportTrace> traces = new ArrayDeque<>();
+
+    @PostConstruct
+    public void init() {
+        // The recorder runs in the request filter's finally block, so a bad setting would fail every slow request
+        if (capacity < 1) {
+            throw new IllegalStateException("report.diagnostics.capacity must be at least 1, was " + capacity);
+        }
+        if (thresholdMillis < 0) {
+            throw new IllegalStateException(
+                    "report.diagnostics.slow-threshold-ms must not be negative, was " + thresholdMillis);
+        }
+    }
+
+    public void record(ReportTrace trace) {
+        if (trace.getTotalMillis() < thresholdMillis) {
+            return;
+        }
+
+        synchronized (traces) {
+            if (traces.size() >= capacity) {
+                traces.removeFirst();
+            }
+            traces.addLast(trace);
+        }
+    }
+
+    public List<ReportTrace> getTraces() {
+        synchronized (traces) {
+            return new ArrayList<>(traces);
+        }
+    }
+
+    public void clear() {
+        synchronized (traces) {
+            traces.clear();
+        }
+    }
+
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+}
@@ -0,0 +1,31 @@
+package com.report.jasper.diagnostics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@Endpoint(id = "slowreports")
+public class SlowReportsEndpoint {
+
+    @Autowired
+    private SlowReportRecorder slowReportRecorder;
+
+    @ReadOperation
+    public Map<String, Object> slowReports() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("thresholdMillis", slowReportRecorder.getThresholdMillis());
+        result.put("traces", slowReportRecorder.getTraces());
+        return result;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowReportRecorder.clear();
+    }
+}
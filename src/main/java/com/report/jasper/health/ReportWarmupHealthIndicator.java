@@ -0,0 +1,35 @@
+package com.report.jasper.health;
+
+import com.report.jasper.service.ReportWarmupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports OUT_OF_SERVICE until the first warm-up has finished, and while the
+ * last warm-up failed. Included in the readiness group so load balancers only
+ * route to warm nodes.
+ */
+@Component
+public class ReportWarmupHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private ReportWarmupService reportWarmupService;
+
+    @Override
+    public Health health() {
+        if (!reportWarmupService.isWarm()) {
+            return Health.outOfService().withDetail("warmup", "in progress").build();
+        }
+
+        if (reportWarmupService.getLastError() != null) {
+            // Hot reports that failed to pre-render would fail for users too; retried until they succeed
+            return Health.outOfService()
+                    .withDetail("warmup", "failed")
+                    .withDetail("lastError", reportWarmupService.getLastError())
+                    .build();
+        }
+        return Health.up().withDetail("warmup", "complete").build();
+    }
+}
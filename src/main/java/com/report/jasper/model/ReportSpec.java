@@ -0,0 +1,59 @@
+package com.report.jasper.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything needed to render a report: template, format, rows and optional
+ * parameters. Specs are fingerprinted to key the report store and are sent to
+ * the owning node in cluster mode.
+ */
+public class ReportSpec {
+    private String reportName;
+    private String format;
+    private List<Employee> employees;
+    private Map<String, Object> parameters;
+
+    public ReportSpec() {
+    }
+
+    public ReportSpec(String reportName, String format, List<Employee> employees, Map<String, Object> parameters) {
+        this.reportName = reportName;
+        this.format = format;
+        this.employees = employees;
+        this.parameters = parameters;
+    }
+
+    // Getters and Setters
+    public String getReportName() {
+        return reportName;
+    }
+
+    public void setReportName(String reportName) {
+        this.reportName = reportName;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public List<Employee> getEmployees() {
+        return employees;
+    }
+
+    public void setEmployees(List<Employee> employees) {
+        this.employees = employees;
+    }
+
+    public Map<String, Object> getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(Map<String, Object> parameters) {
+        this.parameters = parameters;
+    }
+}
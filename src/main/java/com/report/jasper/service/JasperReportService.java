@@ -1,18 +1,52 @@
 package com.report.jasper.service;
 
+import com.report.jasper.config.PdfExportProfile;
+import com.report.jasper.diagnostics.ReportCompileEvent;
+import com.report.jasper.diagnostics.ReportExportEvent;
+import com.report.jasper.diagnostics.ReportFillEvent;
+import com.report.jasper.diagnostics.ReportTrace;
+import com.report.jasper.model.ReportSpec;
 import net.sf.jasperreports.engine.*;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
+import net.sf.jasperreports.engine.design.JRDesignStyle;
+import net.sf.jasperreports.engine.design.JasperDesign;
+import net.sf.jasperreports.engine.xml.JRXmlLoader;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class JasperReportService {
 
+    // Shipped by jasperreports-fonts and registered as PDF-embedded
+    public static final String EMBEDDED_FONT = "DejaVu Sans";
+
+    private final Map<String, JasperReport> compiledReports = new ConcurrentHashMap<>();
+
+    private final Map<String, String> templateHashes = new ConcurrentHashMap<>();
+
+    private volatile Set<String> templateNames;
+
+    @Autowired
+    private PdfExportProfile pdfExportProfile;
+
     public byte[] generatePdfReport(List<?> data, String reportName) throws Exception {
         return generateReport(data, reportName, "pdf");
     }
@@ -27,152 +61,287 @@ public class JasperReportService {
 
     public byte[] generateReportWithParametersPdf(List<?> data, Map<String, Object> parameters, String reportName,
             String format) throws Exception {
-        return generateReportWithParameters(data, parameters, reportName, format);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        generateReportWithParameters(data, parameters, reportName, format, outputStream);
+        return outputStream.toByteArray();
     }
 
-    private byte[] generateReport(List<?> data, String reportName, String format) throws Exception {
-        try {
-            // Load the JRXML file
-            ClassPathResource resource = new ClassPathResource("reports/" + reportName + ".jrxml");
-            if (!resource.exists()) {
-                throw new Exception("JRXML template not found: " + reportName + ".jrxml");
-            }
+    public byte[] generateReport(ReportSpec spec) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        generateReport(spec, outputStream);
+        return outputStream.toByteArray();
+    }
 
-            InputStream reportStream = resource.getInputStream();
+    /**
+     * Renders the report straight into the given stream, so large exports are
+     * never held in memory as a whole.
+     */
+    public void generateReport(ReportSpec spec, OutputStream outputStream) throws Exception {
+        // Custom parameters replace the defaults entirely
+        Map<String, Object> parameters = spec.getParameters() != null ? spec.getParameters() : defaultParameters();
+        generateReportWithParameters(spec.getEmployees(), parameters, spec.getReportName(), spec.getFormat(),
+                outputStream);
+    }
 
-            // Compile the report
-            JasperReport jasperReport = JasperCompileManager.compileReport(reportStream);
+    private byte[] generateReport(List<?> data, String reportName, String format) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        generateReportWithParameters(data, defaultParameters(), reportName, format, outputStream);
+        return outputStream.toByteArray();
+    }
 
-            // Create data source
-            JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(data);
+    private Map<String, Object> defaultParameters() {
+        // Parameters for the report (can be extended as needed)
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("reportTitle", "Employee Report");
+        parameters.put("generatedBy", "Jasper Report Console");
+        parameters.put("creator", "Created by: Pitpy BPSS");
+        return parameters;
+    }
 
-            // Parameters for the report (can be extended as needed)
-            Map<String, Object> parameters = new HashMap<>();
-            parameters.put("reportTitle", "Employee Report");
-            parameters.put("generatedBy", "Jasper Report Console");
-            parameters.put("creator", "Created by: Pitpy BPSS");
+    private void generateReportWithParameters(List<?> data, Map<String, Object> parameters, String reportName,
+            String format, OutputStream outputStream) throws Exception {
+        try {
+            // Load the compiled template
+            // Only PDF/A needs embedded fonts; they make every other PDF larger
+            boolean embedFonts = "pdf".equalsIgnoreCase(format) && pdfExportProfile.requiresEmbeddedFonts();
+            JasperReport jasperReport = getCompiledReport(reportName, embedFonts);
 
             // Fill the report
-            JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
+            JasperPrint jasperPrint = fill(jasperReport, parameters, data, reportName);
 
             // Export based on format
-            return switch (format.toLowerCase()) {
-                case "pdf" -> JasperExportManager.exportReportToPdf(jasperPrint);
-                case "xlsx" -> {
-                    net.sf.jasperreports.export.SimpleExporterInput exporterInput = new net.sf.jasperreports.export.SimpleExporterInput(
-                            jasperPrint);
-
-                    java.io.ByteArrayOutputStream outputStream = new java.io.ByteArrayOutputStream();
-                    net.sf.jasperreports.export.SimpleOutputStreamExporterOutput exporterOutput = new net.sf.jasperreports.export.SimpleOutputStreamExporterOutput(
-                            outputStream);
-
-                    net.sf.jasperreports.engine.export.ooxml.JRXlsxExporter exporter = new net.sf.jasperreports.engine.export.ooxml.JRXlsxExporter();
-                    exporter.setExporterInput(exporterInput);
-                    exporter.setExporterOutput(exporterOutput);
-
-                    net.sf.jasperreports.export.SimpleXlsxReportConfiguration configuration = new net.sf.jasperreports.export.SimpleXlsxReportConfiguration();
-                    configuration.setOnePagePerSheet(false);
-                    configuration.setDetectCellType(true);
-                    exporter.setConfiguration(configuration);
-
-                    exporter.exportReport();
-                    yield outputStream.toByteArray();
-                }
-                case "html" -> {
-                    net.sf.jasperreports.export.SimpleExporterInput exporterInput = new net.sf.jasperreports.export.SimpleExporterInput(
-                            jasperPrint);
+            export(jasperPrint, reportName, format, outputStream);
 
-                    java.io.ByteArrayOutputStream outputStream = new java.io.ByteArrayOutputStream();
-                    net.sf.jasperreports.export.SimpleHtmlExporterOutput exporterOutput = new net.sf.jasperreports.export.SimpleHtmlExporterOutput(
-                            outputStream);
+        } catch (Exception e) {
+            throw new Exception("Error generating " + format.toUpperCase() + " report: " + e.getMessage(), e);
+        }
+    }
 
-                    net.sf.jasperreports.engine.export.HtmlExporter exporter = new net.sf.jasperreports.engine.export.HtmlExporter();
-                    exporter.setExporterInput(exporterInput);
-                    exporter.setExporterOutput(exporterOutput);
+    private JasperPrint fill(JasperReport jasperReport, Map<String, Object> parameters, List<?> data,
+            String reportName) throws JRException {
+        ReportFillEvent event = new ReportFillEvent();
+        event.begin();
+        long start = System.nanoTime();
+        JasperPrint print = null;
 
-                    net.sf.jasperreports.export.SimpleHtmlReportConfiguration configuration = new net.sf.jasperreports.export.SimpleHtmlReportConfiguration();
-                    // Use default HTML configuration
-                    exporter.setConfiguration(configuration);
+        try {
+            JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(data);
+            print = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
+            return print;
+        } finally {
+            // Recorded on failure too, so slow failing requests still show a breakdown
+            event.end();
+            long elapsed = System.nanoTime() - start;
+            int pages = print != null ? print.getPages().size() : 0;
+            int rows = data != null ? data.size() : 0;
+            if (event.shouldCommit()) {
+                event.reportName = reportName;
+                event.rows = rows;
+                event.pages = pages;
+                event.failed = print == null;
+                event.commit();
+            }
+            ReportTrace.recordPhase("fill", reportName, elapsed,
+                    (print == null ? "failed, " : "") + "rows=" + rows + ", pages=" + pages);
+        }
+    }
 
-                    exporter.exportReport();
-                    yield outputStream.toByteArray();
-                }
-                default -> throw new IllegalArgumentException("Unsupported format: " + format);
-            };
+    private void export(JasperPrint print, String reportName, String format, OutputStream outputStream)
+            throws JRException {
+        ReportExportEvent event = new ReportExportEvent();
+        event.begin();
+        long start = System.nanoTime();
+        CountingOutputStream counter = new CountingOutputStream(outputStream);
+        boolean exported = false;
 
-        } catch (Exception e) {
-            throw new Exception("Error generating " + format.toUpperCase() + " report: " + e.getMessage(), e);
+        try {
+            exportFormat(print, format, counter);
+            exported = true;
+        } finally {
+            event.end();
+            long elapsed = System.nanoTime() - start;
+            if (event.shouldCommit()) {
+                event.reportName = reportName;
+                event.format = format.toLowerCase();
+                event.bytes = counter.count;
+                event.failed = !exported;
+                event.commit();
+            }
+            ReportTrace.recordPhase("export", reportName, elapsed,
+                    (exported ? "" : "failed, ") + "format=" + format.toLowerCase() + ", bytes=" + counter.count);
         }
     }
 
-    private byte[] generateReportWithParameters(List<?> data, Map<String, Object> parameters, String reportName,
-            String format) throws Exception {
-        try {
-            // Load the JRXML file
-            ClassPathResource resource = new ClassPathResource("reports/" + reportName + ".jrxml");
-            if (!resource.exists()) {
-                throw new Exception("JRXML template not found: " + reportName + ".jrxml");
+    private void exportFormat(JasperPrint print, String format, OutputStream outputStream) throws JRException {
+        switch (format.toLowerCase()) {
+            case "pdf" -> exportPdf(print, pdfExportProfile, outputStream);
+            case "xlsx" -> {
+                net.sf.jasperreports.export.SimpleExporterInput exporterInput = new net.sf.jasperreports.export.SimpleExporterInput(
+                        print);
+
+                net.sf.jasperreports.export.SimpleOutputStreamExporterOutput exporterOutput = new net.sf.jasperreports.export.SimpleOutputStreamExporterOutput(
+                        outputStream);
+
+                net.sf.jasperreports.engine.export.ooxml.JRXlsxExporter exporter = new net.sf.jasperreports.engine.export.ooxml.JRXlsxExporter();
+                exporter.setExporterInput(exporterInput);
+                exporter.setExporterOutput(exporterOutput);
+
+                net.sf.jasperreports.export.SimpleXlsxReportConfiguration configuration = new net.sf.jasperreports.export.SimpleXlsxReportConfiguration();
+                configuration.setOnePagePerSheet(false);
+                configuration.setDetectCellType(true);
+                exporter.setConfiguration(configuration);
+
+                exporter.exportReport();
             }
+            case "html" -> {
+                net.sf.jasperreports.export.SimpleExporterInput exporterInput = new net.sf.jasperreports.export.SimpleExporterInput(
+                        print);
 
-            InputStream reportStream = resource.getInputStream();
+                net.sf.jasperreports.export.SimpleHtmlExporterOutput exporterOutput = new net.sf.jasperreports.export.SimpleHtmlExporterOutput(
+                        outputStream);
 
-            // Compile the report
-            JasperReport jasperReport = JasperCompileManager.compileReport(reportStream);
+                net.sf.jasperreports.engine.export.HtmlExporter exporter = new net.sf.jasperreports.engine.export.HtmlExporter();
+                exporter.setExporterInput(exporterInput);
+                exporter.setExporterOutput(exporterOutput);
 
-            // Create data source
-            JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(data);
+                net.sf.jasperreports.export.SimpleHtmlReportConfiguration configuration = new net.sf.jasperreports.export.SimpleHtmlReportConfiguration();
+                // Use default HTML configuration
+                exporter.setConfiguration(configuration);
 
-            // Fill the report
-            JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
+                exporter.exportReport();
+            }
+            default -> throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+    }
 
-            // Export based on format
-            return switch (format.toLowerCase()) {
-                case "pdf" -> JasperExportManager.exportReportToPdf(jasperPrint);
-                case "xlsx" -> {
-                    net.sf.jasperreports.export.SimpleExporterInput exporterInput = new net.sf.jasperreports.export.SimpleExporterInput(
-                            jasperPrint);
-
-                    java.io.ByteArrayOutputStream outputStream = new java.io.ByteArrayOutputStream();
-                    net.sf.jasperreports.export.SimpleOutputStreamExporterOutput exporterOutput = new net.sf.jasperreports.export.SimpleOutputStreamExporterOutput(
-                            outputStream);
-
-                    net.sf.jasperreports.engine.export.ooxml.JRXlsxExporter exporter = new net.sf.jasperreports.engine.export.ooxml.JRXlsxExporter();
-                    exporter.setExporterInput(exporterInput);
-                    exporter.setExporterOutput(exporterOutput);
-
-                    net.sf.jasperreports.export.SimpleXlsxReportConfiguration configuration = new net.sf.jasperreports.export.SimpleXlsxReportConfiguration();
-                    configuration.setOnePagePerSheet(false);
-                    configuration.setDetectCellType(true);
-                    exporter.setConfiguration(configuration);
-
-                    exporter.exportReport();
-                    yield outputStream.toByteArray();
-                }
-                case "html" -> {
-                    net.sf.jasperreports.export.SimpleExporterInput exporterInput = new net.sf.jasperreports.export.SimpleExporterInput(
-                            jasperPrint);
+    public byte[] exportPdf(JasperPrint print, PdfExportProfile profile) throws JRException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportPdf(print, profile, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    public void exportPdf(JasperPrint print, PdfExportProfile profile, OutputStream outputStream) throws JRException {
+        net.sf.jasperreports.export.SimpleExporterInput exporterInput = new net.sf.jasperreports.export.SimpleExporterInput(
+                print);
+
+        net.sf.jasperreports.export.SimpleOutputStreamExporterOutput exporterOutput = new net.sf.jasperreports.export.SimpleOutputStreamExporterOutput(
+                outputStream);
 
-                    java.io.ByteArrayOutputStream outputStream = new java.io.ByteArrayOutputStream();
-                    net.sf.jasperreports.export.SimpleHtmlExporterOutput exporterOutput = new net.sf.jasperreports.export.SimpleHtmlExporterOutput(
-                            outputStream);
+        net.sf.jasperreports.engine.export.JRPdfExporter exporter = new net.sf.jasperreports.engine.export.JRPdfExporter();
+        exporter.setExporterInput(exporterInput);
+        exporter.setExporterOutput(exporterOutput);
 
-                    net.sf.jasperreports.engine.export.HtmlExporter exporter = new net.sf.jasperreports.engine.export.HtmlExporter();
-                    exporter.setExporterInput(exporterInput);
-                    exporter.setExporterOutput(exporterOutput);
+        // Shared, read-only configuration from the active PDF export profile
+        exporter.setConfiguration(profile.getConfiguration());
 
-                    net.sf.jasperreports.export.SimpleHtmlReportConfiguration configuration = new net.sf.jasperreports.export.SimpleHtmlReportConfiguration();
-                    // Use default HTML configuration
-                    exporter.setConfiguration(configuration);
+        exporter.exportReport();
+    }
 
-                    exporter.exportReport();
-                    yield outputStream.toByteArray();
+    /**
+     * Returns the names of the templates packaged under {@code reports/},
+     * without the {@code .jrxml} extension.
+     */
+    public Set<String> getTemplateNames() throws IOException {
+        Set<String> names = templateNames;
+        if (names == null) {
+            names = new TreeSet<>();
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources("classpath:reports/*.jrxml");
+            for (Resource resource : resources) {
+                String filename = resource.getFilename();
+                if (filename != null) {
+                    names.add(filename.substring(0, filename.length() - ".jrxml".length()));
                 }
-                default -> throw new IllegalArgumentException("Unsupported format: " + format);
-            };
+            }
+            names = Collections.unmodifiableSet(names);
+            templateNames = names;
+        }
+        return names;
+    }
 
-        } catch (Exception e) {
-            throw new Exception("Error generating " + format.toUpperCase() + " report: " + e.getMessage(), e);
+    /**
+     * Returns a SHA-256 hash of the template source, so stored reports are not
+     * served after the template changes.
+     */
+    public String getTemplateHash(String reportName) throws Exception {
+        String cached = templateHashes.get(reportName);
+        if (cached != null) {
+            return cached;
+        }
+
+        ClassPathResource resource = new ClassPathResource("reports/" + reportName + ".jrxml");
+        if (!resource.exists()) {
+            throw new Exception("JRXML template not found: " + reportName + ".jrxml");
+        }
+        try (InputStream reportStream = resource.getInputStream()) {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(reportStream.readAllBytes());
+            String hash = HexFormat.of().formatHex(digest);
+            templateHashes.putIfAbsent(reportName, hash);
+            return hash;
+        }
+    }
+
+    public JasperReport getCompiledReport(String reportName) throws Exception {
+        return getCompiledReport(reportName, false);
+    }
+
+    /**
+     * Returns the compiled template. With {@code embedFonts} the template's
+     * default font becomes {@value #EMBEDDED_FONT}, which the PDF exporter
+     * embeds as PDF/A requires; other exports keep the standard fonts.
+     */
+    public JasperReport getCompiledReport(String reportName, boolean embedFonts) throws Exception {
+        String key = embedFonts ? reportName + "#embedded-fonts" : reportName;
+        JasperReport cached = compiledReports.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Load the JRXML file
+        ClassPathResource resource = new ClassPathResource("reports/" + reportName + ".jrxml");
+        if (!resource.exists()) {
+            throw new Exception("JRXML template not found: " + reportName + ".jrxml");
+        }
+
+        ReportCompileEvent event = new ReportCompileEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean compiled = false;
+
+        // Compile the report once and reuse it for every fill
+        try (InputStream reportStream = resource.getInputStream()) {
+            JasperDesign design = JRXmlLoader.load(reportStream);
+            if (embedFonts) {
+                useEmbeddedDefaultFont(design);
+            }
+            JasperReport jasperReport = JasperCompileManager.compileReport(design);
+            compiledReports.putIfAbsent(key, jasperReport);
+            compiled = true;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.reportName = reportName;
+                event.failed = !compiled;
+                event.commit();
+            }
+            ReportTrace.recordPhase("compile", reportName, System.nanoTime() - start, compiled ? null : "failed");
+        }
+        return compiledReports.get(key);
+    }
+
+    private static void useEmbeddedDefaultFont(JasperDesign design) throws JRException {
+        JRStyle defaultStyle = design.getDefaultStyle();
+        if (defaultStyle instanceof JRDesignStyle designStyle) {
+            if (designStyle.getOwnFontName() == null) {
+                designStyle.setFontName(EMBEDDED_FONT);
+            }
+            return;
         }
+
+        JRDesignStyle style = new JRDesignStyle();
+        style.setName("EmbeddedFontDefault");
+        style.setDefault(true);
+        style.setFontName(EMBEDDED_FONT);
+        design.addStyle(style);
     }
 
     public String getContentType(String format) {
@@ -192,4 +361,25 @@ public class JasperReportService {
             default -> ".dat";
         };
     }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
 }
@@ -0,0 +1,401 @@
+package com.report.jasper.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.report.jasper.config.PdfExportProfile;
+import com.report.jasper.diagnostics.ReportTrace;
+import com.report.jasper.model.ReportSpec;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * Disk-backed store for finished reports. Reports are keyed by a fingerprint of
+ * their inputs so repeated and resumed downloads are served from disk instead of
+ * being regenerated. The least recently used files are evicted once the store
+ * grows past its disk budget; in cluster mode, where the directory is shared by
+ * all nodes, reports are evicted by age only.
+ */
+@Service
+public class ReportStore {
+
+    private static final String[] EXTENSIONS = { "pdf", "xlsx", "html" };
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    // Temp files untouched this long belong to a write that died with its node
+    private static final long STALE_TEMP_MILLIS = Duration.ofHours(1).toMillis();
+
+    @Value("${report.store.directory:${java.io.tmpdir}/jasper-report-store}")
+    private String directory;
+
+    @Value("${report.store.max-size-mb:1024}")
+    private long maxSizeMb;
+
+    // Reports carry their render date, so stored copies go stale; zero disables expiry
+    @Value("${report.store.ttl:1h}")
+    private Duration ttl;
+
+    // Upper bound for requests waiting on another thread's render of the same report
+    @Value("${report.store.render-wait-ms:120000}")
+    private long renderWaitMillis;
+
+    // The directory is shared with other cluster nodes
+    @Value("${report.cluster.enabled:false}")
+    private boolean shared;
+
+    // Recently handed out reports may still be opened by the response writer
+    @Value("${report.store.eviction-grace-ms:10000}")
+    private long evictionGraceMillis;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PdfExportProfile pdfExportProfile;
+
+    @Autowired
+    private JasperReportService jasperReportService;
+
+    // Access-ordered so iteration starts at the least recently used report
+    private final Map<String, StoredReport> reports = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<String, Long> lastAccess = new HashMap<>();
+
+    private final Map<String, CompletableFuture<StoredReport>> rendering = new ConcurrentHashMap<>();
+
+    private long totalBytes;
+
+    private Path root;
+
+    @FunctionalInterface
+    public interface ReportRenderer {
+        void render(OutputStream outputStream) throws Exception;
+    }
+
+    public record StoredReport(String id, String format, Path path, long size, long lastModified) {
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(directory);
+        Files.createDirectories(root);
+
+        if (shared && ttl.isZero()) {
+            throw new IllegalStateException(
+                    "report.store.ttl must be non-zero in cluster mode because shared stores are evicted by age");
+        }
+
+        sweep();
+        if (shared) {
+            // Other nodes own most of the files; they are picked up lazily by find()
+            return;
+        }
+
+        // Pick up reports persisted by a previous run, oldest first
+        try (Stream<Path> files = Files.list(root)) {
+            List<Path> existing = files.filter(Files::isRegularFile)
+                    .filter(path -> !path.getFileName().toString().endsWith(".tmp"))
+                    .sorted(Comparator.comparingLong(path -> path.toFile().lastModified()))
+                    .toList();
+
+            synchronized (this) {
+                for (Path path : existing) {
+                    String fileName = path.getFileName().toString();
+                    int dot = fileName.lastIndexOf('.');
+                    if (dot <= 0) {
+                        continue;
+                    }
+                    register(new StoredReport(fileName.substring(0, dot), fileName.substring(dot + 1), path,
+                            Files.size(path), Files.getLastModifiedTime(path).toMillis()));
+                }
+                evictIfNeeded();
+            }
+        }
+    }
+
+    /**
+     * Deletes reports that expired more than the eviction grace ago and temp
+     * files nobody has written to for a while. Age is the only eviction that
+     * is safe in a directory shared by several nodes: {@link #find} never
+     * returns an expired report, so after the grace period no download can
+     * still be about to open it.
+     */
+    @Scheduled(fixedDelayString = "${report.store.sweep-interval-ms:60000}",
+            initialDelayString = "${report.store.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        try (Stream<Path> files = Files.list(root)) {
+            for (Path path : files.filter(Files::isRegularFile).toList()) {
+                String fileName = path.getFileName().toString();
+                if (fileName.endsWith(".tmp")) {
+                    // Another node may still be writing a recent one into a shared directory
+                    deleteIfOlderThan(path, now - STALE_TEMP_MILLIS);
+                    continue;
+                }
+
+                int dot = fileName.lastIndexOf('.');
+                if (ttl.isZero() || dot <= 0) {
+                    continue;
+                }
+                if (deleteIfOlderThan(path, now - ttl.toMillis() - evictionGraceMillis)) {
+                    synchronized (this) {
+                        StoredReport report = reports.get(fileName.substring(0, dot));
+                        if (report != null && report.path().equals(path)) {
+                            unregister(report.id());
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Builds a stable identifier for a report from its template, format and
+     * inputs.
+     */
+    public String fingerprint(String reportName, String format, Object... inputs) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(objectMapper.writer()
+                .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                .writeValueAsBytes(Arrays.asList(reportName, format.toLowerCase(), inputs)));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public String fingerprint(ReportSpec spec) throws Exception {
+        // PDF bytes also depend on the export profile
+        String exportProfile = "pdf".equalsIgnoreCase(spec.getFormat()) ? pdfExportProfile.describe() : null;
+        // The store outlives deployments, so a changed template must not match reports rendered from the old one
+        String templateHash = jasperReportService.getTemplateHash(spec.getReportName());
+        return fingerprint(spec.getReportName(), spec.getFormat(), spec.getEmployees(), spec.getParameters(),
+                exportProfile, templateHash);
+    }
+
+    public synchronized StoredReport find(String id) {
+        StoredReport report = reports.get(id);
+        if (report != null && !Files.exists(report.path())) {
+            unregister(id);
+            report = null;
+        }
+        if (report == null) {
+            // The directory may be shared with other nodes that rendered it
+            report = loadFromDisk(id);
+        }
+        if (report == null || isExpired(report)) {
+            // An expired file stays in place until a fresh render replaces it
+            return null;
+        }
+        lastAccess.put(id, System.currentTimeMillis());
+        return report;
+    }
+
+    /**
+     * Returns the stored report for the given id, rendering and persisting it
+     * first if it is not in the store yet.
+     */
+    public StoredReport getOrRender(String id, String format, ReportRenderer renderer) throws Exception {
+        StoredReport existing = find(id);
+        if (existing != null) {
+            ReportTrace.recordPhase("store", null, 0, "hit, bytes=" + existing.size());
+            return existing;
+        }
+
+        // Concurrent requests for the same report wait for a single render
+        CompletableFuture<StoredReport> pending = new CompletableFuture<>();
+        CompletableFuture<StoredReport> running = rendering.putIfAbsent(id, pending);
+        if (running != null) {
+            try {
+                return running.get(renderWaitMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                throw new TimeoutException("Timed out waiting for report " + id + " to be rendered");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            // Another render may have finished between the lookup and claiming the slot
+            StoredReport stored = find(id);
+            if (stored != null) {
+                pending.complete(stored);
+                return stored;
+            }
+
+            StoredReport report = store(id, format, renderer);
+            pending.complete(report);
+            return report;
+        } catch (Throwable e) {
+            // Errors too, or every waiter would block on a render that never completes
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            rendering.remove(id);
+        }
+    }
+
+    public StoredReport store(String id, String format, byte[] content) throws Exception {
+        return store(id, format, outputStream -> outputStream.write(content));
+    }
+
+    /**
+     * Renders a report straight into a temporary file in the store and then
+     * moves it into place, so the report is never held in memory as a whole.
+     */
+    public StoredReport store(String id, String format, ReportRenderer renderer) throws Exception {
+        String extension = format.toLowerCase();
+        Path target = root.resolve(id + "." + extension);
+        Path temp = Files.createTempFile(root, id, ".tmp");
+        long start;
+        long size;
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            // Exporters write straight into the temp file; only the buffer is held in memory
+            OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(channel),
+                    WRITE_BUFFER_SIZE);
+            renderer.render(outputStream);
+            start = System.nanoTime();
+            outputStream.flush();
+            channel.force(false);
+            size = channel.size();
+        } catch (Throwable e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        // Readers never observe a partially written report
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        StoredReport report = new StoredReport(id, extension, target, size,
+                Files.getLastModifiedTime(target).toMillis());
+        synchronized (this) {
+            register(report);
+            evictIfNeeded();
+        }
+        ReportTrace.recordPhase("store", null, System.nanoTime() - start, "miss, bytes=" + size);
+        return report;
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    private boolean isExpired(StoredReport report) {
+        return !ttl.isZero() && System.currentTimeMillis() - report.lastModified() > ttl.toMillis();
+    }
+
+    private void register(StoredReport report) {
+        lastAccess.put(report.id(), report.lastModified());
+        StoredReport previous = reports.put(report.id(), report);
+        if (previous != null) {
+            totalBytes -= previous.size();
+        }
+        totalBytes += report.size();
+    }
+
+    private StoredReport loadFromDisk(String id) {
+        if (!id.matches("[0-9a-f]{64}")) {
+            return null;
+        }
+
+        for (String extension : EXTENSIONS) {
+            Path path = root.resolve(id + "." + extension);
+            try {
+                if (Files.isRegularFile(path)) {
+                    StoredReport report = new StoredReport(id, extension, path, Files.size(path),
+                            Files.getLastModifiedTime(path).toMillis());
+                    register(report);
+                    evictIfNeeded();
+                    return report;
+                }
+            } catch (IOException e) {
+                // Removed by another node between the check and the read
+            }
+        }
+        return null;
+    }
+
+    private void unregister(String id) {
+        StoredReport removed = reports.remove(id);
+        lastAccess.remove(id);
+        if (removed != null) {
+            totalBytes -= removed.size();
+        }
+    }
+
+    private boolean deleteIfOlderThan(Path path, long cutoff) {
+        try {
+            // Re-read right before deleting, a re-render may have just replaced the file
+            if (Files.getLastModifiedTime(path).toMillis() < cutoff) {
+                return Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            // Removed by another node in the meantime
+        }
+        return false;
+    }
+
+    private void evictIfNeeded() {
+        if (shared) {
+            // Each node only sees its own accesses, so size-based LRU could delete a report another node is
+            // serving; shared stores are evicted by age in sweep()
+            return;
+        }
+
+        long budget = maxSizeMb * 1024 * 1024;
+        Iterator<StoredReport> iterator = reports.values().iterator();
+
+        long graceCutoff = System.currentTimeMillis() - evictionGraceMillis;
+
+        // Always keep the most recent report, even if it alone exceeds the budget
+        while (totalBytes > budget && reports.size() > 1 && iterator.hasNext()) {
+            StoredReport eldest = iterator.next();
+            if (lastAccess.getOrDefault(eldest.id(), 0L) > graceCutoff) {
+                // Iteration is in access order, so every remaining report is recent too
+                break;
+            }
+            iterator.remove();
+            lastAccess.remove(eldest.id());
+            totalBytes -= eldest.size();
+            try {
+                Files.deleteIfExists(eldest.path());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.report.jasper.service;
+
+import com.report.jasper.cluster.ReportRouter;
+import com.report.jasper.model.Employee;
+import com.report.jasper.model.ReportSpec;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Warms the JVM and the report store so the first real requests of the day do
+ * not pay for template compilation, cold JIT and font loading. Runs once at
+ * startup and then on a cron shortly before the day's traffic; readiness is
+ * reported only after the first run and while the last run succeeded.
+ */
+@Service
+public class ReportWarmupService {
+
+    private static final String[] FORMATS = { "pdf", "xlsx", "html" };
+
+    @Autowired
+    private JasperReportService jasperReportService;
+
+    @Autowired
+    private EmployeeDataService employeeDataService;
+
+    @Autowired
+    private ReportRouter reportRouter;
+
+    @Value("${report.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${report.warmup.iterations:3}")
+    private int iterations;
+
+    // Hot report specs: "employee:<format>" or "department/<name>:<format>"
+    @Value("${report.warmup.hot-reports:employee:pdf}")
+    private List<String> hotReportSpecs;
+
+    private List<HotReport> hotReports;
+
+    private volatile boolean warm;
+
+    private volatile String lastError;
+
+    private record HotReport(String spec, String department, String format) {
+    }
+
+    @PostConstruct
+    public void init() {
+        // A typo in the configuration fails the deployment instead of silently skipping reports
+        List<HotReport> parsed = new ArrayList<>();
+        for (String spec : hotReportSpecs) {
+            if (!spec.isBlank()) {
+                parsed.add(parseHotReport(spec.trim()));
+            }
+        }
+        hotReports = parsed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        warmUp();
+    }
+
+    @Scheduled(cron = "${report.warmup.cron:0 45 7 * * *}")
+    public void warmUpOnSchedule() {
+        warmUp();
+    }
+
+    @Scheduled(fixedDelayString = "${report.warmup.retry-delay-ms:60000}",
+            initialDelayString = "${report.warmup.retry-delay-ms:60000}")
+    public void retryFailedWarmUp() {
+        // Readiness stays down while the last run failed, so retry rather than wait for the cron
+        if (lastError != null) {
+            warmUp();
+        }
+    }
+
+    public synchronized void warmUp() {
+        if (!enabled) {
+            warm = true;
+            return;
+        }
+
+        List<String> errors = new ArrayList<>();
+        try {
+            List<String> templates = precompileTemplates();
+            runSyntheticFills(templates);
+        } catch (Exception e) {
+            e.printStackTrace();
+            errors.add(e.getMessage());
+        }
+        errors.addAll(preRenderHotReports());
+
+        lastError = errors.isEmpty() ? null : String.join("; ", errors);
+        warm = true;
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    private List<String> precompileTemplates() throws Exception {
+        List<String> templates = new ArrayList<>(jasperReportService.getTemplateNames());
+        for (String reportName : templates) {
+            jasperReportService.getCompiledReport(reportName);
+        }
+        return templates;
+    }
+
+    private void runSyntheticFills(List<String> templates) throws Exception {
+        List<Employee> employees = employeeDataService.getMockEmployeeData();
+
+        // Exercise fill and every exporter so the JIT and font caches are hot
+        for (int i = 0; i < iterations; i++) {
+            for (String template : templates) {
+                for (String format : FORMATS) {
+                    jasperReportService.generateReport(new ReportSpec(template, format, employees, null),
+                            OutputStream.nullOutputStream());
+                }
+            }
+        }
+    }
+
+    private List<String> preRenderHotReports() {
+        List<String> errors = new ArrayList<>();
+
+        // One failing report must not keep the others cold
+        for (HotReport hotReport : hotReports) {
+            try {
+                List<Employee> employees = hotReport.department() == null
+                        ? employeeDataService.getMockEmployeeData()
+                        : employeeDataService.getEmployeesByDepartment(hotReport.department());
+                if (employees.isEmpty()) {
+                    continue;
+                }
+
+                // Same spec as ReportController, so requests hit the stored copy
+                reportRouter.getOrRender(new ReportSpec("employee_report", hotReport.format(), employees, null));
+            } catch (Exception e) {
+                e.printStackTrace();
+                errors.add(hotReport.spec() + ": " + e.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    private static HotReport parseHotReport(String spec) {
+        int separator = spec.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Invalid hot report spec: " + spec);
+        }
+        String target = spec.substring(0, separator).trim();
+        String format = spec.substring(separator + 1).trim().toLowerCase();
+        if (!List.of(FORMATS).contains(format)) {
+            throw new IllegalArgumentException("Unsupported format in hot report spec: " + spec);
+        }
+
+        if (target.equals("employee")) {
+            return new HotReport(spec, null, format);
+        }
+        if (target.startsWith("department/") && target.length() > "department/".length()) {
+            return new HotReport(spec, target.substring("department/".length()), format);
+        }
+        throw new IllegalArgumentException("Invalid hot report spec: " + spec);
+    }
+}
@@ -0,0 +1,109 @@
+package com.report.jasper.benchmark;
+
+import com.report.jasper.config.PdfExportProfile;
+import com.report.jasper.model.Employee;
+import com.report.jasper.service.JasperReportService;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CPU time versus output size of the PDF export profiles for
+ * {@code employee_report} at several row counts. Run with
+ * {@code ./mvnw test -Ppdfbench}; results are written to
+ * {@code target/pdfbench/pdf-export-profiles.csv}.
+ */
+class PdfExportBenchmark {
+
+    private static final String[] DEPARTMENTS = { "Engineering", "Marketing", "Sales", "HR", "Finance", "Operations" };
+
+    @Test
+    void compareProfiles() throws Exception {
+        int[] rowCounts = Arrays.stream(System.getProperty("pdfbench.rows", "15,500,5000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        int warmupIterations = Integer.parseInt(System.getProperty("pdfbench.warmup-iterations", "5"));
+        int iterations = Integer.parseInt(System.getProperty("pdfbench.iterations", "20"));
+        Path outputDir = Paths.get(System.getProperty("pdfbench.output-dir", "target/pdfbench"));
+
+        Map<String, PdfExportProfile> profiles = new LinkedHashMap<>();
+        profiles.put("uncompressed", new PdfExportProfile(false, "none", "", false));
+        profiles.put("compressed", new PdfExportProfile(true, "none", "", false));
+        profiles.put("pdfa-1b", new PdfExportProfile(false, "pdfa-1b", "", false));
+        profiles.put("pdfa-1b-compressed", new PdfExportProfile(true, "pdfa-1b", "", false));
+
+        JasperReportService jasperReportService = new JasperReportService();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        StringBuilder csv = new StringBuilder("rows,profile,pages,bytes,cpuMillisPerExport,wallMillisPerExport\n");
+        for (int rows : rowCounts) {
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("reportTitle", "Employee Report");
+            parameters.put("generatedBy", "Jasper Report Console");
+            List<Employee> employees = buildEmployees(rows);
+
+            // PDF/A profiles are filled with the embedded font, as in the service
+            Map<Boolean, JasperPrint> prints = new HashMap<>();
+            for (Map.Entry<String, PdfExportProfile> profile : profiles.entrySet()) {
+                boolean embedFonts = profile.getValue().requiresEmbeddedFonts();
+                if (!prints.containsKey(embedFonts)) {
+                    JasperReport jasperReport = jasperReportService.getCompiledReport("employee_report", embedFonts);
+                    prints.put(embedFonts, JasperFillManager.fillReport(jasperReport, parameters,
+                            new JRBeanCollectionDataSource(employees)));
+                }
+                JasperPrint print = prints.get(embedFonts);
+
+                for (int i = 0; i < warmupIterations; i++) {
+                    jasperReportService.exportPdf(print, profile.getValue());
+                }
+
+                byte[] output = new byte[0];
+                long cpuStart = threads.getCurrentThreadCpuTime();
+                long wallStart = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    output = jasperReportService.exportPdf(print, profile.getValue());
+                }
+                double cpuMillis = (threads.getCurrentThreadCpuTime() - cpuStart) / 1_000_000.0 / iterations;
+                double wallMillis = (System.nanoTime() - wallStart) / 1_000_000.0 / iterations;
+
+                assertTrue(output.length > 0, "Empty PDF for profile " + profile.getKey());
+                csv.append(rows).append(',')
+                        .append(profile.getKey()).append(',')
+                        .append(print.getPages().size()).append(',')
+                        .append(output.length).append(',')
+                        .append(String.format("%.2f", cpuMillis)).append(',')
+                        .append(String.format("%.2f", wallMillis)).append('\n');
+            }
+        }
+
+        Files.createDirectories(outputDir);
+        Files.writeString(outputDir.resolve("pdf-export-profiles.csv"), csv);
+        System.out.print(csv);
+    }
+
+    private static List<Employee> buildEmployees(int rows) {
+        List<Employee> employees = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            employees.add(new Employee((long) i, "Employee " + i, "employee" + i + "@company.com",
+                    DEPARTMENTS[i % DEPARTMENTS.length], 50000.0 + (i % 40) * 1000, "2022-01-15"));
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,52 @@
+package com.report.jasper.cluster;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.hamcrest.Matchers.hasLength;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"report.warmup.enabled=false",
+		"report.cluster.enabled=true",
+		"report.store.directory=${java.io.tmpdir}/jasper-cluster-test-${random.uuid}" })
+@AutoConfigureMockMvc
+class ClusterControllerTests {
+
+	private static final String EMPLOYEES = """
+			[{"id":1,"name":"John Doe","email":"john.doe@company.com","department":"Engineering",
+			"salary":75000.0,"joinDate":"2020-01-15"}]""";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void rendersPackagedTemplate() throws Exception {
+		render("{\"reportName\":\"employee_report\",\"format\":\"pdf\",\"employees\":" + EMPLOYEES + "}")
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.reportId", hasLength(64)));
+	}
+
+	@Test
+	void rejectsUnknownTemplate() throws Exception {
+		render("{\"reportName\":\"../secrets\",\"format\":\"pdf\",\"employees\":" + EMPLOYEES + "}")
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void rejectsMissingEmployees() throws Exception {
+		render("{\"reportName\":\"employee_report\",\"format\":\"pdf\"}")
+				.andExpect(status().isBadRequest());
+	}
+
+	private ResultActions render(String body) throws Exception {
+		return mockMvc.perform(post("/api/cluster/render").contentType(MediaType.APPLICATION_JSON).content(body));
+	}
+}
@@ -0,0 +1,57 @@
+package com.report.jasper.cluster;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ClusterMembershipTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void blankHeartbeatFilesAreIgnored() throws Exception {
+		// A peer caught between creating and writing its file
+		Files.createFile(directory.resolve("blank.node"));
+		Files.writeString(directory.resolve("peer.node"), "http://localhost:8082/");
+
+		ClusterMembership membership = membership("http://localhost:8081", List.of());
+		membership.init();
+		membership.heartbeat();
+
+		assertEquals(List.of("http://localhost:8081", "http://localhost:8082"), membership.getMembers());
+	}
+
+	@Test
+	void staticPeersRequireSelfUrl() {
+		ClusterMembership membership = membership("", List.of("http://a:8081", "http://b:8081"));
+
+		assertThrows(IllegalStateException.class, membership::init);
+	}
+
+	@Test
+	void selfUrlMustBeListedAmongStaticPeers() {
+		ClusterMembership membership = membership("http://c:8081", List.of("http://a:8081", "http://b:8081"));
+
+		assertThrows(IllegalStateException.class, membership::init);
+	}
+
+	private ClusterMembership membership(String selfUrl, List<String> peers) {
+		ClusterMembership membership = new ClusterMembership();
+		ReflectionTestUtils.setField(membership, "enabled", true);
+		ReflectionTestUtils.setField(membership, "selfUrl", selfUrl);
+		ReflectionTestUtils.setField(membership, "serverPort", 8081);
+		ReflectionTestUtils.setField(membership, "peers", peers);
+		ReflectionTestUtils.setField(membership, "directory", peers.isEmpty() ? directory.toString() : "");
+		ReflectionTestUtils.setField(membership, "heartbeatTtlMillis", 15000L);
+		ReflectionTestUtils.setField(membership, "virtualNodes", 16);
+		return membership;
+	}
+}
@@ -0,0 +1,51 @@
+package com.report.jasper.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTests {
+
+	private static final int KEYS = 10_000;
+
+	private static final List<String> MEMBERS = List.of("http://node-1:8081", "http://node-2:8081",
+			"http://node-3:8081");
+
+	@Test
+	void ownerIsStableAcrossInstancesAndMemberOrder() {
+		ConsistentHashRing ring = new ConsistentHashRing(MEMBERS, 128);
+		ConsistentHashRing reordered = new ConsistentHashRing(
+				List.of(MEMBERS.get(2), MEMBERS.get(1), MEMBERS.get(0)), 128);
+
+		for (int i = 0; i < KEYS; i++) {
+			String key = "report-" + i;
+			assertEquals(ring.ownerOf(key), ring.ownerOf(key));
+			assertEquals(ring.ownerOf(key), reordered.ownerOf(key));
+		}
+	}
+
+	@Test
+	void joiningNodeTakesOverAboutOneNthOfKeys() {
+		ConsistentHashRing before = new ConsistentHashRing(MEMBERS, 128);
+		String joined = "http://node-4:8081";
+		ConsistentHashRing after = new ConsistentHashRing(
+				List.of(MEMBERS.get(0), MEMBERS.get(1), MEMBERS.get(2), joined), 128);
+
+		int moved = 0;
+		for (int i = 0; i < KEYS; i++) {
+			String key = "report-" + i;
+			String owner = after.ownerOf(key);
+			if (!owner.equals(before.ownerOf(key))) {
+				// Keys only ever move to the new node, never between existing ones
+				assertEquals(joined, owner);
+				moved++;
+			}
+		}
+
+		double share = (double) moved / KEYS;
+		assertTrue(share > 0.15 && share < 0.35, "Expected about 1/4 of keys to move, got " + share);
+	}
+}
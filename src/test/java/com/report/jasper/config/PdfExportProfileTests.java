@@ -0,0 +1,84 @@
+package com.report.jasper.config;
+
+import com.report.jasper.model.Employee;
+import com.report.jasper.model.ReportSpec;
+import com.report.jasper.service.JasperReportService;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PdfExportProfileTests {
+
+	private final JasperReportService jasperReportService = new JasperReportService();
+
+	@ParameterizedTest
+	@CsvSource({ "employee_report,pdfa-1a", "employee_report,pdfa-1b", "users,pdfa-1a", "users,pdfa-1b" })
+	void pdfaProfilesExportEveryTemplateWithEmbeddedFonts(String reportName, String conformance) throws Exception {
+		// Uncompressed, so font and metadata objects can be found in the bytes
+		PdfExportProfile profile = new PdfExportProfile(false, conformance, "", false);
+
+		// PDF/A rejects fonts that are not embedded, so this fails if a template falls back to a core font
+		String pdf = export(reportName, profile);
+
+		assertTrue(pdf.startsWith("%PDF-"));
+		assertTrue(pdf.contains("/FontFile2"), "Expected an embedded font");
+		assertTrue(pdf.contains("pdfaid:part"), "Expected PDF/A identification in the XMP metadata");
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "employee_report", "users" })
+	void regularProfileKeepsStandardFonts(String reportName) throws Exception {
+		String pdf = export(reportName, new PdfExportProfile(false, "none", "", false));
+
+		assertTrue(pdf.startsWith("%PDF-"));
+		assertFalse(pdf.contains("/FontFile2"), "Fonts should only be embedded for PDF/A");
+	}
+
+	@Test
+	void reportServiceUsesEmbeddedFontsForActivePdfaProfile() throws Exception {
+		ReflectionTestUtils.setField(jasperReportService, "pdfExportProfile",
+				new PdfExportProfile(false, "pdfa-1b", "", false));
+		List<Employee> employees = List.of(
+				new Employee(1L, "John Doe", "john.doe@company.com", "Engineering", 75000.0, "2020-01-15"));
+
+		byte[] pdf = jasperReportService.generateReport(new ReportSpec("employee_report", "pdf", employees, null));
+
+		assertTrue(new String(pdf, StandardCharsets.ISO_8859_1).contains("/FontFile2"));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "1.8", "1,7", "latest" })
+	void rejectsUnsupportedPdfVersion(String version) {
+		IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+				() -> new PdfExportProfile(true, "none", version, false));
+
+		assertEquals("Unsupported PDF version: " + version, error.getMessage());
+	}
+
+	private String export(String reportName, PdfExportProfile profile) throws Exception {
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("creator", "Created by: Test");
+		List<Employee> employees = List.of(
+				new Employee(1L, "John Doe", "john.doe@company.com", "Engineering", 75000.0, "2020-01-15"));
+		JasperPrint print = JasperFillManager.fillReport(
+				jasperReportService.getCompiledReport(reportName, profile.requiresEmbeddedFonts()), parameters,
+				new JRBeanCollectionDataSource(employees));
+
+		return new String(jasperReportService.exportPdf(print, profile), StandardCharsets.ISO_8859_1);
+	}
+}
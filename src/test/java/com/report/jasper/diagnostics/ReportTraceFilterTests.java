@@ -0,0 +1,98 @@
+package com.report.jasper.diagnostics;
+
+import com.report.jasper.model.Employee;
+import com.report.jasper.model.ReportSpec;
+import com.report.jasper.service.JasperReportService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"report.warmup.enabled=false",
+		"report.store.directory=${java.io.tmpdir}/jasper-trace-test-${random.uuid}",
+		"report.diagnostics.slow-threshold-ms=0" })
+@AutoConfigureMockMvc
+class ReportTraceFilterTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private SlowReportRecorder slowReportRecorder;
+
+	@Autowired
+	private JasperReportService jasperReportService;
+
+	@BeforeEach
+	void clearTraces() {
+		slowReportRecorder.clear();
+	}
+
+	@Test
+	void recordsPhasesOfReportRequests() throws Exception {
+		mockMvc.perform(get("/api/reports/employee").param("format", "pdf")).andExpect(status().isOk());
+
+		List<ReportTrace> traces = slowReportRecorder.getTraces();
+		assertEquals(1, traces.size());
+		List<String> phases = traces.get(0).getPhases().stream().map(ReportTrace.Phase::name).toList();
+		assertTrue(phases.containsAll(List.of("fill", "export", "store")), "Phases: " + phases);
+	}
+
+	@Test
+	void skipsDownloadsAndNonReportPaths() throws Exception {
+		String reportId = mockMvc.perform(get("/api/reports/employee").param("format", "xlsx"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("X-Report-Id");
+		slowReportRecorder.clear();
+
+		mockMvc.perform(get("/api/reports/files/{reportId}", reportId)).andExpect(status().isOk());
+		mockMvc.perform(get("/actuator/health"));
+
+		assertTrue(slowReportRecorder.getTraces().isEmpty());
+	}
+
+	@Test
+	void emitsJfrEventsForFillAndExport() throws Exception {
+		Map<String, RecordedEvent> events = new ConcurrentHashMap<>();
+		CountDownLatch received = new CountDownLatch(2);
+
+		try (RecordingStream stream = new RecordingStream()) {
+			for (String name : List.of("com.report.jasper.ReportFill", "com.report.jasper.ReportExport")) {
+				stream.enable(name);
+				stream.onEvent(name, event -> {
+					if (events.putIfAbsent(name, event) == null) {
+						received.countDown();
+					}
+				});
+			}
+			stream.startAsync();
+
+			List<Employee> employees = List.of(
+					new Employee(1L, "John Doe", "john.doe@company.com", "Engineering", 75000.0, "2020-01-15"));
+			jasperReportService.generateReport(new ReportSpec("employee_report", "html", employees, null));
+
+			assertTrue(received.await(30, TimeUnit.SECONDS), "JFR events not received: " + events.keySet());
+		}
+
+		assertEquals("employee_report", events.get("com.report.jasper.ReportFill").getString("reportName"));
+		assertEquals(1, events.get("com.report.jasper.ReportFill").getInt("rows"));
+		assertEquals("html", events.get("com.report.jasper.ReportExport").getString("format"));
+		assertTrue(events.get("com.report.jasper.ReportExport").getLong("bytes") > 0);
+	}
+}
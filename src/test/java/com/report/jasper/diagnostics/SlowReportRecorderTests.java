@@ -0,0 +1,55 @@
+package com.report.jasper.diagnostics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowReportRecorderTests {
+
+	@Test
+	void ignoresRequestsBelowThreshold() {
+		SlowReportRecorder recorder = recorder(60_000, 10);
+
+		recorder.record(trace("/api/reports/employee"));
+
+		assertTrue(recorder.getTraces().isEmpty());
+	}
+
+	@Test
+	void keepsOnlyTheMostRecentTraces() {
+		SlowReportRecorder recorder = recorder(0, 2);
+
+		recorder.record(trace("/api/reports/1"));
+		recorder.record(trace("/api/reports/2"));
+		recorder.record(trace("/api/reports/3"));
+
+		List<ReportTrace> traces = recorder.getTraces();
+		assertEquals(2, traces.size());
+		assertEquals("/api/reports/2", traces.get(0).getUri());
+		assertEquals("/api/reports/3", traces.get(1).getUri());
+	}
+
+	@Test
+	void rejectsCapacityBelowOne() {
+		assertThrows(IllegalStateException.class, () -> recorder(0, 0));
+	}
+
+	private static SlowReportRecorder recorder(long thresholdMillis, int capacity) {
+		SlowReportRecorder recorder = new SlowReportRecorder();
+		ReflectionTestUtils.setField(recorder, "thresholdMillis", thresholdMillis);
+		ReflectionTestUtils.setField(recorder, "capacity", capacity);
+		recorder.init();
+		return recorder;
+	}
+
+	private static ReportTrace trace(String uri) {
+		ReportTrace trace = ReportTrace.begin("GET", uri);
+		trace.end(200);
+		return trace;
+	}
+}
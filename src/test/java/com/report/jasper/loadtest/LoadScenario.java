@@ -0,0 +1,118 @@
+package com.report.jasper.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.report.jasper.model.Employee;
+import com.report.jasper.model.ReportRequest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * One entry of the load mix, e.g. {@code employee:pdf=30},
+ * {@code department/Engineering:xlsx=10}, {@code custom:pdf=20} or
+ * {@code generate:html=5}.
+ */
+class LoadScenario {
+
+    private static final String[] DEPARTMENTS = { "Engineering", "Marketing", "Sales", "HR", "Finance", "Operations" };
+
+    private final String name;
+    private final String target;
+    private final String format;
+    private final int weight;
+
+    private LoadScenario(String name, String target, String format, int weight) {
+        this.name = name;
+        this.target = target;
+        this.format = format;
+        this.weight = weight;
+    }
+
+    static List<LoadScenario> parseMix(String mix) {
+        List<LoadScenario> scenarios = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+
+            int equals = trimmed.lastIndexOf('=');
+            String name = equals > 0 ? trimmed.substring(0, equals) : trimmed;
+            int weight = equals > 0 ? Integer.parseInt(trimmed.substring(equals + 1)) : 1;
+
+            int colon = name.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Invalid load mix entry: " + entry);
+            }
+            String target = name.substring(0, colon);
+            if (!target.equals("employee") && !target.equals("custom") && !target.equals("generate")
+                    && !target.startsWith("department/")) {
+                throw new IllegalArgumentException("Unknown load mix target: " + target);
+            }
+            scenarios.add(new LoadScenario(name, target, name.substring(colon + 1), weight));
+        }
+        return scenarios;
+    }
+
+    static LoadScenario pick(List<LoadScenario> scenarios, Random random) {
+        int total = scenarios.stream().mapToInt(scenario -> scenario.weight).sum();
+        int roll = random.nextInt(total);
+        for (LoadScenario scenario : scenarios) {
+            roll -= scenario.weight;
+            if (roll < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    HttpRequest buildRequest(URI baseUri, ObjectMapper objectMapper, int rows, long salt) throws Exception {
+        String path = "/api/reports/";
+        if (target.equals("employee")) {
+            return HttpRequest.newBuilder(baseUri.resolve(path + "employee?format=" + format)).GET().build();
+        }
+        if (target.startsWith("department/")) {
+            String department = URLEncoder.encode(target.substring("department/".length()), StandardCharsets.UTF_8);
+            return HttpRequest.newBuilder(baseUri.resolve(path + "employee/department/" + department
+                    + "?format=" + format)).GET().build();
+        }
+
+        List<Employee> employees = buildEmployees(rows, salt);
+        byte[] body;
+        URI uri;
+        if (target.equals("custom")) {
+            body = objectMapper.writeValueAsBytes(employees);
+            uri = baseUri.resolve(path + "employee/custom?format=" + format);
+        } else {
+            body = objectMapper.writeValueAsBytes(new ReportRequest(employees, format, "employee_report", null));
+            uri = baseUri.resolve(path + "employee/generate");
+        }
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private static List<Employee> buildEmployees(int rows, long salt) {
+        List<Employee> employees = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            long id = salt * rows + i + 1;
+            employees.add(new Employee(id, "Employee " + id, "employee" + id + "@company.com",
+                    DEPARTMENTS[i % DEPARTMENTS.length], 50000.0 + (i % 40) * 1000, "2022-01-15"));
+        }
+        return employees;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getWeight() {
+        return weight;
+    }
+}
@@ -0,0 +1,175 @@
+package com.report.jasper.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test results written as JSON (for diffing between commits) and as a
+ * small HTML page for reading.
+ */
+class LoadTestReport {
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9, 99.99 };
+
+    private final Map<String, Object> content = new LinkedHashMap<>();
+    private final String label;
+    private final long requests;
+    private final long errors;
+
+    LoadTestReport(String label, Map<String, Object> config, Map<String, ReportLoadHarness.ScenarioResult> results,
+            double elapsedSeconds, Histogram gcPauses, long heapPeakBytes, long heapMaxBytes) {
+        this.label = label;
+
+        Histogram overall = new Histogram(3);
+        long totalErrors = 0;
+        Map<String, Object> scenarios = new LinkedHashMap<>();
+        for (Map.Entry<String, ReportLoadHarness.ScenarioResult> entry : results.entrySet()) {
+            ReportLoadHarness.ScenarioResult result = entry.getValue();
+            overall.add(result.latency);
+            totalErrors += result.errors.get();
+
+            Map<String, Object> scenario = new LinkedHashMap<>();
+            scenario.put("requests", result.latency.getTotalCount());
+            scenario.put("errors", result.errors.get());
+            scenario.put("throughputPerSecond", result.latency.getTotalCount() / elapsedSeconds);
+            scenario.put("bytes", result.bytes.get());
+            scenario.put("latencyMillis", percentiles(result.latency, 1_000.0));
+            scenarios.put(entry.getKey(), scenario);
+        }
+        this.requests = overall.getTotalCount();
+        this.errors = totalErrors;
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", requests);
+        summary.put("errors", errors);
+        summary.put("elapsedSeconds", elapsedSeconds);
+        summary.put("throughputPerSecond", requests / elapsedSeconds);
+        summary.put("latencyMillis", percentiles(overall, 1_000.0));
+
+        Map<String, Object> gc = new LinkedHashMap<>();
+        gc.put("pauses", gcPauses.getTotalCount());
+        gc.put("totalPauseMillis", (long) (gcPauses.getMean() * gcPauses.getTotalCount()));
+        gc.put("pauseMillis", percentiles(gcPauses, 1.0));
+
+        Map<String, Object> heap = new LinkedHashMap<>();
+        heap.put("peakUsedBytes", heapPeakBytes);
+        heap.put("maxBytes", heapMaxBytes);
+
+        content.put("label", label);
+        content.put("timestamp", Instant.now().toString());
+        content.put("javaVersion", System.getProperty("java.version"));
+        content.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        content.put("config", config);
+        content.put("summary", summary);
+        content.put("scenarios", scenarios);
+        content.put("gc", gc);
+        content.put("heap", heap);
+    }
+
+    long getRequests() {
+        return requests;
+    }
+
+    double getErrorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    void write(ObjectMapper objectMapper, Path outputDir) throws Exception {
+        Files.createDirectories(outputDir);
+        objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValue(outputDir.resolve("loadtest-" + label + ".json").toFile(), content);
+        Files.writeString(outputDir.resolve("loadtest-" + label + ".html"), toHtml());
+    }
+
+    private static Map<String, Object> percentiles(Histogram histogram, double scale) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (histogram.getTotalCount() == 0) {
+            return values;
+        }
+        for (double percentile : PERCENTILES) {
+            values.put(key(percentile), histogram.getValueAtPercentile(percentile) / scale);
+        }
+        values.put("max", histogram.getMaxValue() / scale);
+        values.put("mean", histogram.getMean() / scale);
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String toHtml() {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n")
+                .append("<title>Load test: ").append(escape(label)).append("</title>\n")
+                .append("<style>body{font-family:sans-serif}table{border-collapse:collapse;margin-bottom:1em}")
+                .append("td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}</style>\n")
+                .append("</head>\n<body>\n")
+                .append("<h1>Load test: ").append(escape(label)).append("</h1>\n")
+                .append("<p>").append(escape(String.valueOf(content.get("timestamp")))).append("</p>\n");
+
+        html.append("<h2>Configuration</h2>\n");
+        appendTable(html, (Map<String, Object>) content.get("config"));
+
+        html.append("<h2>Latency (ms)</h2>\n<table>\n<tr><th>Scenario</th><th>Requests</th><th>Errors</th>")
+                .append("<th>Req/s</th>");
+        for (double percentile : PERCENTILES) {
+            html.append("<th>").append(key(percentile)).append("</th>");
+        }
+        html.append("<th>max</th></tr>\n");
+
+        Map<String, Object> rows = new LinkedHashMap<>((Map<String, Object>) content.get("scenarios"));
+        rows.put("overall", content.get("summary"));
+        for (Map.Entry<String, Object> row : rows.entrySet()) {
+            Map<String, Object> values = (Map<String, Object>) row.getValue();
+            Map<String, Object> latency = (Map<String, Object>) values.get("latencyMillis");
+            html.append("<tr><td>").append(escape(row.getKey())).append("</td>")
+                    .append("<td>").append(values.get("requests")).append("</td>")
+                    .append("<td>").append(values.get("errors")).append("</td>")
+                    .append("<td>").append(format(values.get("throughputPerSecond"))).append("</td>");
+            for (double percentile : PERCENTILES) {
+                html.append("<td>").append(format(latency.get(key(percentile)))).append("</td>");
+            }
+            html.append("<td>").append(format(latency.get("max"))).append("</td></tr>\n");
+        }
+        html.append("</table>\n");
+
+        html.append("<h2>GC</h2>\n");
+        appendTable(html, (Map<String, Object>) content.get("gc"));
+        html.append("<h2>Heap</h2>\n");
+        appendTable(html, (Map<String, Object>) content.get("heap"));
+
+        html.append("</body>\n</html>\n");
+        return html.toString();
+    }
+
+    private static void appendTable(StringBuilder html, Map<String, Object> values) {
+        html.append("<table>\n");
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            Object value = entry.getValue() instanceof int[] array ? Arrays.toString(array)
+                    : entry.getValue();
+            html.append("<tr><th>").append(escape(entry.getKey())).append("</th><td>")
+                    .append(escape(format(value))).append("</td></tr>\n");
+        }
+        html.append("</table>\n");
+    }
+
+    private static String key(double percentile) {
+        return percentile == Math.rint(percentile) ? "p" + (long) percentile : "p" + percentile;
+    }
+
+    private static String format(Object value) {
+        if (value instanceof Double number) {
+            return String.format("%.2f", number);
+        }
+        return String.valueOf(value);
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,325 @@
+package com.report.jasper.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+
+import javax.management.MBeanServerConnection;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Macro load test against the real report endpoints. The packaged application
+ * runs in its own JVM so its GC pauses and heap peak, read over JMX, do not
+ * include the load generator. Requests are issued at a fixed arrival rate
+ * (open model) and latency is measured from each request's intended start
+ * time, so a stalled server is not hidden by coordinated omission.
+ * <p>
+ * Run with {@code ./mvnw verify -Ploadtest}; see the profile in pom.xml for the
+ * tunable {@code loadtest.*} properties. GET scenarios are served from the
+ * report store after their first render; POST scenarios send unique payloads
+ * by default so they measure rendering.
+ */
+class ReportLoadHarness {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicLong payloadSequence = new AtomicLong();
+
+    static class ScenarioResult {
+        final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+    }
+
+    @Test
+    void runLoad() throws Exception {
+        double rate = Double.parseDouble(System.getProperty("loadtest.rate", "20"));
+        int warmupSeconds = Integer.parseInt(System.getProperty("loadtest.warmup-seconds", "10"));
+        int durationSeconds = Integer.parseInt(System.getProperty("loadtest.duration-seconds", "30"));
+        String mix = System.getProperty("loadtest.mix",
+                "employee:pdf=30,employee:xlsx=10,department/Engineering:pdf=20,custom:pdf=20,generate:xlsx=20");
+        int[] payloadRows = parseRows(System.getProperty("loadtest.payload-rows", "15,200"));
+        boolean uniquePayloads = Boolean.parseBoolean(System.getProperty("loadtest.unique-payloads", "true"));
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+        String label = System.getProperty("loadtest.label", "current");
+        String jvmArgs = System.getProperty("loadtest.jvm-args", "-Xms1g -Xmx1g -XX:+UseG1GC");
+        Path appJar = Paths.get(System.getProperty("loadtest.app-jar", "target/jasper-0.0.1-SNAPSHOT.jar"));
+        Path outputDir = Paths.get(System.getProperty("loadtest.output-dir", "target/loadtest"));
+
+        List<LoadScenario> scenarios = LoadScenario.parseMix(mix);
+        int port = freePort();
+        int jmxPort = freePort();
+        URI baseUri = URI.create("http://localhost:" + port);
+
+        Files.createDirectories(outputDir);
+        Path storeDir = Files.createTempDirectory("jasper-loadtest-store");
+        Process application = startApplication(appJar, port, jmxPort, jvmArgs, storeDir,
+                outputDir.resolve("loadtest-" + label + "-app.log"));
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(executor)
+                .build();
+
+        try {
+            awaitReadiness(client, baseUri, application);
+
+            try (JMXConnector jmx = JMXConnectorFactory.connect(
+                    new JMXServiceURL("service:jmx:rmi:///jndi/rmi://localhost:" + jmxPort + "/jmxrmi"))) {
+                MBeanServerConnection connection = jmx.getMBeanServerConnection();
+
+                // Warm-up phase, results discarded
+                drive(client, baseUri, scenarios, payloadRows, uniquePayloads, rate, warmupSeconds,
+                        newResults(scenarios));
+
+                Histogram gcPauses = new ConcurrentHistogram(TimeUnit.MINUTES.toMillis(10), 3);
+                List<Runnable> gcListeners = listenForGcPauses(connection, gcPauses);
+                MemoryMXBean memory = ManagementFactory.newPlatformMXBeanProxy(connection,
+                        ManagementFactory.MEMORY_MXBEAN_NAME, MemoryMXBean.class);
+                List<MemoryPoolMXBean> heapPools = heapPools(connection);
+                heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+                Map<String, ScenarioResult> results = newResults(scenarios);
+                long start = System.nanoTime();
+                drive(client, baseUri, scenarios, payloadRows, uniquePayloads, rate, durationSeconds, results);
+                double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+                long heapPeak = peakUsed(heapPools);
+                gcListeners.forEach(Runnable::run);
+
+                Map<String, Object> config = new LinkedHashMap<>();
+                config.put("rate", rate);
+                config.put("warmupSeconds", warmupSeconds);
+                config.put("durationSeconds", durationSeconds);
+                config.put("mix", mix);
+                config.put("payloadRows", payloadRows);
+                config.put("uniquePayloads", uniquePayloads);
+                config.put("jvmArgs", jvmArgs);
+
+                LoadTestReport report = new LoadTestReport(label, config, results, elapsedSeconds, gcPauses,
+                        heapPeak, memory.getHeapMemoryUsage().getMax());
+                report.write(objectMapper, outputDir);
+
+                assertTrue(report.getRequests() > 0, "No requests completed");
+                assertTrue(report.getErrorRate() <= maxErrorRate,
+                        "Error rate " + report.getErrorRate() + " exceeds " + maxErrorRate);
+            }
+        } finally {
+            executor.shutdownNow();
+            application.destroy();
+            if (!application.waitFor(30, TimeUnit.SECONDS)) {
+                application.destroyForcibly().waitFor(30, TimeUnit.SECONDS);
+            }
+            FileSystemUtils.deleteRecursively(storeDir);
+        }
+    }
+
+    private static Process startApplication(Path appJar, int port, int jmxPort, String jvmArgs, Path storeDir,
+            Path logFile) throws IOException {
+        if (!Files.isRegularFile(appJar)) {
+            throw new IllegalStateException("Application jar not found: " + appJar + " (run with mvn verify)");
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(Arrays.asList(jvmArgs.trim().split("\\s+")));
+        command.add("-Dcom.sun.management.jmxremote.port=" + jmxPort);
+        command.add("-Dcom.sun.management.jmxremote.rmi.port=" + jmxPort);
+        command.add("-Dcom.sun.management.jmxremote.authenticate=false");
+        command.add("-Dcom.sun.management.jmxremote.ssl=false");
+        command.add("-Djava.rmi.server.hostname=localhost");
+        command.add("-jar");
+        command.add(appJar.toAbsolutePath().toString());
+        command.add("--server.port=" + port);
+        command.add("--report.store.directory=" + storeDir);
+
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+    }
+
+    private static void awaitReadiness(HttpClient client, URI baseUri, Process application) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/actuator/health/readiness")).GET().build();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(3);
+
+        // Readiness is held until the application's own warm-up has finished
+        while (System.nanoTime() < deadline) {
+            if (!application.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + application.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Application did not become ready within 3 minutes");
+    }
+
+    private void drive(HttpClient client, URI baseUri, List<LoadScenario> scenarios, int[] payloadRows,
+            boolean uniquePayloads, double rate, int seconds, Map<String, ScenarioResult> results)
+            throws Exception {
+        if (seconds <= 0) {
+            return;
+        }
+
+        Random random = new Random(42);
+        long intervalNanos = (long) (1_000_000_000L / rate);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+
+        for (long i = 0;; i++) {
+            long intendedStart = start + i * intervalNanos;
+            if (intendedStart >= end) {
+                break;
+            }
+            // parkNanos may return early, spuriously or on interrupt
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            LoadScenario scenario = LoadScenario.pick(scenarios, random);
+            int rows = payloadRows[random.nextInt(payloadRows.length)];
+            ScenarioResult result = results.get(scenario.getName());
+            // Unique across warm-up and measured phases, so POSTs never hit the report store
+            long salt = uniquePayloads ? payloadSequence.incrementAndGet() : 0;
+
+            pending.add(client
+                    .sendAsync(scenario.buildRequest(baseUri, objectMapper, rows, salt),
+                            HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        // Measured from the intended start, not the actual send time
+                        long latencyMicros = (System.nanoTime() - intendedStart) / 1_000;
+                        result.latency.recordValue(Math.min(latencyMicros, MAX_LATENCY_MICROS));
+                        if (error != null || response.statusCode() >= 400) {
+                            result.errors.incrementAndGet();
+                        } else {
+                            result.bytes.addAndGet(response.headers().firstValueAsLong("Content-Length").orElse(0));
+                        }
+                        return null;
+                    }));
+        }
+
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.MINUTES);
+    }
+
+    private static Map<String, ScenarioResult> newResults(List<LoadScenario> scenarios) {
+        Map<String, ScenarioResult> results = new LinkedHashMap<>();
+        for (LoadScenario scenario : scenarios) {
+            results.put(scenario.getName(), new ScenarioResult());
+        }
+        return results;
+    }
+
+    private static List<Runnable> listenForGcPauses(MBeanServerConnection connection, Histogram gcPauses)
+            throws IOException {
+        List<Runnable> removers = new ArrayList<>();
+        NotificationListener listener = (notification, handback) -> {
+            if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo
+                        .from((CompositeData) notification.getUserData());
+                // Concurrent cycles run alongside the application and are not pauses
+                if (info.getGcName().contains("Concurrent")) {
+                    return;
+                }
+                gcPauses.recordValue(Math.min(info.getGcInfo().getDuration(), gcPauses.getHighestTrackableValue()));
+            }
+        };
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getPlatformMXBeans(connection,
+                GarbageCollectorMXBean.class)) {
+            ObjectName name = gc.getObjectName();
+            try {
+                connection.addNotificationListener(name, listener, null, null);
+            } catch (Exception e) {
+                throw new IOException("Cannot listen to " + name, e);
+            }
+            removers.add(() -> {
+                try {
+                    connection.removeNotificationListener(name, listener);
+                } catch (Exception e) {
+                    // Already removed or connection closed
+                }
+            });
+        }
+        return removers;
+    }
+
+    private static List<MemoryPoolMXBean> heapPools(MBeanServerConnection connection) throws IOException {
+        return ManagementFactory.getPlatformMXBeans(connection, MemoryPoolMXBean.class).stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid())
+                .toList();
+    }
+
+    /**
+     * Sums each heap pool's peak as tracked by the JVM itself, so short spikes
+     * between collections are not missed. Pools can peak at different moments,
+     * so this is an upper bound on the heap's actual peak.
+     */
+    private static long peakUsed(List<MemoryPoolMXBean> heapPools) {
+        return heapPools.stream()
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static int[] parseRows(String rows) {
+        return Arrays.stream(rows.split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+}
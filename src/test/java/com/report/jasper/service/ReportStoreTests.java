@@ -0,0 +1,216 @@
+package com.report.jasper.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"report.warmup.enabled=false",
+		"report.store.directory=${java.io.tmpdir}/jasper-store-test-${random.uuid}",
+		"report.store.max-size-mb=1",
+		"report.store.eviction-grace-ms=0" })
+@AutoConfigureMockMvc
+class ReportStoreTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ReportStore reportStore;
+
+	@Test
+	void rangeRequestReturnsPartialContent() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/reports/employee").param("format", "pdf"))
+				.andExpect(status().isOk())
+				.andReturn();
+		byte[] report = result.getResponse().getContentAsByteArray();
+		String reportId = result.getResponse().getHeader("X-Report-Id");
+
+		mockMvc.perform(get("/api/reports/files/{reportId}", reportId).header(HttpHeaders.RANGE, "bytes=0-9"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, startsWith("bytes 0-9/")))
+				.andExpect(content().bytes(Arrays.copyOf(report, 10)));
+	}
+
+	@Test
+	void matchingETagReturnsNotModified() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/reports/employee").param("format", "pdf"))
+				.andExpect(status().isOk())
+				.andReturn();
+		String reportId = result.getResponse().getHeader("X-Report-Id");
+		String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/api/reports/files/{reportId}", reportId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void reRenderedReportGetsNewETag() throws Exception {
+		reportStore.store(id('e'), "pdf", new byte[100]);
+		String etag = mockMvc.perform(get("/api/reports/files/{reportId}", id('e')))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		// Same inputs rendered again after the TTL, with different bytes
+		reportStore.store(id('e'), "pdf", new byte[200]);
+
+		mockMvc.perform(get("/api/reports/files/{reportId}", id('e')).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(content().bytes(new byte[200]));
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedReportsPastBudget() throws Exception {
+		byte[] content = new byte[600 * 1024];
+		ReportStore.StoredReport first = reportStore.store(id('a'), "pdf", content);
+		ReportStore.StoredReport second = reportStore.store(id('b'), "pdf", content);
+		ReportStore.StoredReport third = reportStore.store(id('c'), "pdf", content);
+
+		assertNull(reportStore.find(first.id()));
+		assertFalse(Files.exists(first.path()));
+		assertNull(reportStore.find(second.id()));
+		assertFalse(Files.exists(second.path()));
+		assertNotNull(reportStore.find(third.id()));
+		assertTrue(reportStore.getTotalBytes() <= 1024 * 1024);
+	}
+
+	@Test
+	void concurrentRequestsForTheSameReportRenderOnce() throws Exception {
+		int threads = 8;
+		AtomicInteger renders = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		try {
+			List<Future<ReportStore.StoredReport>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return reportStore.getOrRender(id('d'), "pdf", outputStream -> {
+						renders.incrementAndGet();
+						// Hold the render so the other threads arrive while it is in flight
+						Thread.sleep(200);
+						outputStream.write(new byte[1024]);
+					});
+				}));
+			}
+			start.countDown();
+
+			for (Future<ReportStore.StoredReport> result : results) {
+				assertEquals(id('d'), result.get(10, TimeUnit.SECONDS).id());
+			}
+			assertEquals(1, renders.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void waitersAreReleasedWhenRenderFailsWithError() throws Exception {
+		CountDownLatch rendering = new CountDownLatch(1);
+		AtomicReference<Thread> waiterThread = new AtomicReference<>();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		try {
+			Future<ReportStore.StoredReport> renderer = executor.submit(() -> reportStore.getOrRender(id('l'), "pdf",
+					outputStream -> {
+						rendering.countDown();
+						// Fail only once the second request is blocked on this render
+						while (waiterThread.get() == null
+								|| waiterThread.get().getState() != Thread.State.TIMED_WAITING) {
+							Thread.sleep(10);
+						}
+						throw new OutOfMemoryError("export too large");
+					}));
+			rendering.await(10, TimeUnit.SECONDS);
+			Future<ReportStore.StoredReport> waiter = executor.submit(() -> {
+				waiterThread.set(Thread.currentThread());
+				return reportStore.getOrRender(id('l'), "pdf", outputStream -> outputStream.write(new byte[10]));
+			});
+
+			ExecutionException rendererFailure = assertThrows(ExecutionException.class,
+					() -> renderer.get(10, TimeUnit.SECONDS));
+			assertTrue(rendererFailure.getCause() instanceof OutOfMemoryError);
+			ExecutionException waiterFailure = assertThrows(ExecutionException.class,
+					() -> waiter.get(10, TimeUnit.SECONDS));
+			assertTrue(waiterFailure.getCause().getCause() instanceof OutOfMemoryError);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void failedRenderLeavesNoPartialFile() throws Exception {
+		Path directory = reportStore.store(id('f'), "pdf", new byte[10]).path().getParent();
+
+		assertThrows(IllegalStateException.class, () -> reportStore.getOrRender(id('g'), "pdf", outputStream -> {
+			outputStream.write(new byte[100 * 1024]);
+			throw new IllegalStateException("export failed");
+		}));
+
+		assertNull(reportStore.find(id('g')));
+		try (Stream<Path> files = Files.list(directory)) {
+			assertTrue(files.noneMatch(path -> path.getFileName().toString().startsWith(id('g'))));
+		}
+	}
+
+	@Test
+	void sweepDeletesExpiredReportsAndStaleTempFilesOnly() throws Exception {
+		ReportStore.StoredReport expired = reportStore.store(id('h'), "pdf", new byte[10]);
+		ReportStore.StoredReport fresh = reportStore.store(id('i'), "pdf", new byte[10]);
+		Path directory = fresh.path().getParent();
+		Path staleTemp = Files.createTempFile(directory, id('j'), ".tmp");
+		Path activeTemp = Files.createTempFile(directory, id('k'), ".tmp");
+
+		FileTime twoHoursAgo = FileTime.from(Instant.now().minus(Duration.ofHours(2)));
+		Files.setLastModifiedTime(expired.path(), twoHoursAgo);
+		Files.setLastModifiedTime(staleTemp, twoHoursAgo);
+
+		reportStore.sweep();
+
+		assertFalse(Files.exists(expired.path()));
+		assertNull(reportStore.find(expired.id()));
+		assertNotNull(reportStore.find(fresh.id()));
+		assertFalse(Files.exists(staleTemp));
+		// Possibly another node's write in progress
+		assertTrue(Files.exists(activeTemp));
+	}
+
+	private static String id(char c) {
+		return String.valueOf(c).repeat(64);
+	}
+}
@@ -0,0 +1,69 @@
+package com.report.jasper.service;
+
+import com.report.jasper.cluster.ReportRouter;
+import com.report.jasper.health.ReportWarmupHealthIndicator;
+import com.report.jasper.model.Employee;
+import com.report.jasper.model.ReportSpec;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReportWarmupServiceTests {
+
+	private final JasperReportService jasperReportService = mock(JasperReportService.class);
+
+	private final EmployeeDataService employeeDataService = mock(EmployeeDataService.class);
+
+	private final ReportRouter reportRouter = mock(ReportRouter.class);
+
+	@Test
+	void invalidHotReportSpecFailsStartup() {
+		assertThrows(IllegalArgumentException.class, () -> warmupService(List.of("employee:pdf", "employee:docx")));
+		assertThrows(IllegalArgumentException.class, () -> warmupService(List.of("team/Sales:pdf")));
+	}
+
+	@Test
+	void failedHotReportDoesNotStopTheOthersAndKeepsNodeUnready() throws Exception {
+		List<Employee> employees = List.of(
+				new Employee(1L, "John Doe", "john.doe@company.com", "Engineering", 75000.0, "2020-01-15"));
+		when(employeeDataService.getMockEmployeeData()).thenReturn(employees);
+		when(jasperReportService.getTemplateNames()).thenReturn(Set.of());
+		when(reportRouter.getOrRender(argThat(spec -> spec != null && "pdf".equals(spec.getFormat()))))
+				.thenThrow(new IllegalStateException("font missing"));
+
+		ReportWarmupService warmupService = warmupService(List.of("employee:pdf", "employee:xlsx"));
+		warmupService.warmUp();
+
+		verify(reportRouter, times(2)).getOrRender(any(ReportSpec.class));
+		assertTrue(warmupService.getLastError().contains("employee:pdf: font missing"));
+
+		ReportWarmupHealthIndicator healthIndicator = new ReportWarmupHealthIndicator();
+		ReflectionTestUtils.setField(healthIndicator, "reportWarmupService", warmupService);
+		assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+	}
+
+	private ReportWarmupService warmupService(List<String> hotReports) {
+		ReportWarmupService warmupService = new ReportWarmupService();
+		ReflectionTestUtils.setField(warmupService, "jasperReportService", jasperReportService);
+		ReflectionTestUtils.setField(warmupService, "employeeDataService", employeeDataService);
+		ReflectionTestUtils.setField(warmupService, "reportRouter", reportRouter);
+		ReflectionTestUtils.setField(warmupService, "enabled", true);
+		ReflectionTestUtils.setField(warmupService, "iterations", 1);
+		ReflectionTestUtils.setField(warmupService, "hotReportSpecs", hotReports);
+		warmupService.init();
+		return warmupService;
+	}
+}